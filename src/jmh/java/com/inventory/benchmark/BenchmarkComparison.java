@@ -0,0 +1,102 @@
+package com.inventory.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result with a baseline result and writes one CSV row per benchmark:
+ * {@code benchmark,params,mode,unit,baseline,current,change_pct,verdict}.
+ * <p>
+ * For time-per-operation modes a lower score is better; for throughput a higher score is better.
+ * Changes beyond the noise threshold (5% by default, {@code -Dbenchmark.threshold=0.1} for 10%) are
+ * marked as FASTER or SLOWER. To start tracking, copy a result file to the baseline location.
+ *
+ * Usage: BenchmarkComparison &lt;baseline.json&gt; &lt;result.json&gt; &lt;comparison.csv&gt;
+ */
+public final class BenchmarkComparison {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path baselinePath = Path.of(args[0]);
+        Path resultPath = Path.of(args[1]);
+        Path csvPath = Path.of(args[2]);
+        double threshold = Double.parseDouble(System.getProperty("benchmark.threshold", "0.05"));
+
+        Map<String, Score> current = read(resultPath);
+        Map<String, Score> baseline = Files.exists(baselinePath) ? read(baselinePath) : Map.of();
+        if (baseline.isEmpty()) {
+            System.out.println("No baseline at " + baselinePath + "; copy " + resultPath + " there to start tracking.");
+        }
+
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(csvPath))) {
+            csv.println("benchmark,params,mode,unit,baseline,current,change_pct,verdict");
+            System.out.printf("%-72s %12s %12s %9s  %s%n", "Benchmark", "Baseline", "Current", "Change", "Verdict");
+
+            for (Map.Entry<String, Score> entry : current.entrySet()) {
+                Score now = entry.getValue();
+                Score before = baseline.get(entry.getKey());
+
+                String change = "";
+                String verdict = "NEW";
+                if (before != null) {
+                    double delta = (now.value() - before.value()) / before.value();
+                    boolean lowerIsBetter = !now.mode().equals("thrpt");
+                    change = String.format("%.2f", delta * 100);
+                    if (Math.abs(delta) < threshold) {
+                        verdict = "SAME";
+                    } else {
+                        verdict = (delta < 0) == lowerIsBetter ? "FASTER" : "SLOWER";
+                    }
+                }
+
+                csv.printf("%s,%s,%s,%s,%s,%.4f,%s,%s%n", now.benchmark(), now.params(), now.mode(), now.unit(),
+                        before == null ? "" : String.format("%.4f", before.value()), now.value(), change, verdict);
+                System.out.printf("%-72s %12s %12.3f %8s%%  %s%n", shortName(entry.getKey()),
+                        before == null ? "-" : String.format("%.3f", before.value()), now.value(),
+                        change.isEmpty() ? "-" : change, verdict);
+            }
+        }
+        System.out.println("Comparison written to " + csvPath);
+    }
+
+    // Drops the package so that only Class.method{params} is printed
+    private static String shortName(String key) {
+        int paramsStart = key.indexOf('{');
+        int nameEnd = paramsStart < 0 ? key.length() : paramsStart;
+        int classStart = key.lastIndexOf('.', key.lastIndexOf('.', nameEnd - 1) - 1) + 1;
+        return key.substring(classStart);
+    }
+
+    // Keyed by benchmark name plus parameters, so runs with different @Param values are compared separately
+    private static Map<String, Score> read(Path path) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode run : MAPPER.readTree(path.toFile())) {
+            String benchmark = run.get("benchmark").asText();
+            Map<String, String> params = new LinkedHashMap<>();
+            if (run.has("params")) {
+                run.get("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+            }
+            String paramText = params.isEmpty() ? "" : params.toString().replace(",", ";");
+            JsonNode metric = run.get("primaryMetric");
+            Score score = new Score(benchmark, paramText, run.get("mode").asText(),
+                    metric.get("scoreUnit").asText(), metric.get("score").asDouble());
+            scores.put(benchmark + paramText, score);
+        }
+        return scores;
+    }
+
+    private record Score(String benchmark, String params, String mode, String unit, double value) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.inventory.benchmark;
+
+import com.inventory.Service.InventoryService;
+import com.inventory.model.Inventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock adjustments on a single item from every core, through the database row versus hot-stock counters.
+ * Run with {@code -t} to compare scaling at different thread counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+public class HotStockBenchmark {
+
+    @Param({"false", "true"})
+    public boolean hotStock;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private Long itemId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = SeededApplication.start(0, Map.of("inventory.hot-stock.enabled", String.valueOf(hotStock)));
+        inventoryService = context.getBean(InventoryService.class);
+        itemId = inventoryService.createInventory(
+                new Inventory("Console", "Flash sale", new BigDecimal("499.00"), 1_000_000)).getId();
+        if (hotStock) {
+            inventoryService.promoteToHotStock(itemId);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    // Reserve and release one unit, so stock stays level however long the run
+    @Benchmark
+    public int reserveAndRelease() {
+        inventoryService.adjustStock(itemId, -1);
+        return inventoryService.adjustStock(itemId, 1);
+    }
+}
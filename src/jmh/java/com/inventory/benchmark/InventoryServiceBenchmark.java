@@ -0,0 +1,99 @@
+package com.inventory.benchmark;
+
+import com.inventory.Service.InventoryService;
+import com.inventory.model.Inventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer CRUD and query paths, through the real repository, against a seeded in-memory H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InventoryServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = SeededApplication.start(catalogSize);
+        inventoryService = context.getBean(InventoryService.class);
+        ids = inventoryService.getAllInventory().stream().mapToLong(Inventory::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    @Benchmark
+    public Optional<Inventory> getInventoryById() {
+        return inventoryService.getInventoryById(randomId());
+    }
+
+    @Benchmark
+    public Inventory createInventory() {
+        return inventoryService.createInventory(SeededApplication.item(catalogSize, new Random()));
+    }
+
+    @Benchmark
+    public Inventory updateInventory() {
+        long id = randomId();
+        return inventoryService.updateInventory(id, SeededApplication.item((int) id, ThreadLocalRandom.current()));
+    }
+
+    @Benchmark
+    public int adjustStock() {
+        return inventoryService.adjustStock(randomId(), 1);
+    }
+
+    @Benchmark
+    public List<Inventory> searchSingleTerm() {
+        return inventoryService.searchInventory("keyboard");
+    }
+
+    @Benchmark
+    public List<Inventory> searchTwoTerms() {
+        return inventoryService.searchInventory("logitech mou");
+    }
+
+    @Benchmark
+    public List<Inventory> findBelowStockThreshold() {
+        return inventoryService.findInventoryBelowStockThreshold(5);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Inventory> getAllInventory() {
+        return inventoryService.getAllInventory();
+    }
+}
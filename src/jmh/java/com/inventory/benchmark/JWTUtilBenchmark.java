@@ -0,0 +1,55 @@
+package com.inventory.benchmark;
+
+import com.inventory.security.JWTUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and validation, with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JWTUtilBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyThatIsAtLeast32CharLong";
+    private static final int ONE_HOUR = 3_600_000;
+    private static final String USERNAME = "testuser";
+
+    private JWTUtil cachingJwtUtil;
+    private JWTUtil uncachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingJwtUtil = new JWTUtil(SECRET, ONE_HOUR);
+        uncachedJwtUtil = new JWTUtil(SECRET, ONE_HOUR, 0);
+        token = cachingJwtUtil.generateToken(USERNAME);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingJwtUtil.generateToken(USERNAME);
+    }
+
+    @Benchmark
+    public boolean isTokenValidCached() {
+        return cachingJwtUtil.isTokenValid(token, USERNAME);
+    }
+
+    @Benchmark
+    public boolean isTokenValidUncached() {
+        return uncachedJwtUtil.isTokenValid(token, USERNAME);
+    }
+}
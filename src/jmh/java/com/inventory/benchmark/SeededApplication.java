@@ -0,0 +1,68 @@
+package com.inventory.benchmark;
+
+import com.inventory.InventoryManagementApiApplication;
+import com.inventory.Service.InventoryService;
+import com.inventory.model.Inventory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Boots the application without a web server against a private in-memory H2 database
+ * and seeds it with a catalog of the requested size.
+ */
+final class SeededApplication {
+
+    private static final String[] NOUNS = {"Laptop", "Mouse", "Keyboard", "Monitor", "Chair", "Desk", "Lamp", "Cable"};
+    private static final String[] BRANDS = {"Dell", "Logitech", "Corsair", "Apple", "Lenovo", "Asus", "Philips", "Anker"};
+
+    private SeededApplication() {
+    }
+
+    static ConfigurableApplicationContext start(int catalogSize) {
+        return start(catalogSize, false);
+    }
+
+    static ConfigurableApplicationContext start(int catalogSize, boolean virtualThreads) {
+        return start(catalogSize, Map.of("inventory.threads.virtual.enabled", String.valueOf(virtualThreads)));
+    }
+
+    static ConfigurableApplicationContext start(int catalogSize, Map<String, Object> properties) {
+        SpringApplication application = new SpringApplication(InventoryManagementApiApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        Map<String, Object> overrides = new HashMap<>(properties);
+        overrides.put("spring.datasource.url", "jdbc:h2:mem:benchmark-" + System.nanoTime());
+        overrides.put("spring.jpa.show-sql", "false");
+        overrides.put("logging.level.root", "WARN");
+        // Passed as command-line arguments so that they take precedence over application.properties
+        String[] args = overrides.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = application.run(args);
+
+        context.getBean(InventoryService.class).createInventoryInBulk(catalog(catalogSize, new Random(42)));
+        return context;
+    }
+
+    static List<Inventory> catalog(int size, Random random) {
+        List<Inventory> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(item(i, random));
+        }
+        return items;
+    }
+
+    static Inventory item(int i, Random random) {
+        String noun = NOUNS[random.nextInt(NOUNS.length)];
+        String brand = BRANDS[random.nextInt(BRANDS.length)];
+        return new Inventory(noun + " " + i, brand + " " + noun.toLowerCase() + " model " + i,
+                BigDecimal.valueOf(random.nextInt(100_000), 2), random.nextInt(200));
+    }
+}
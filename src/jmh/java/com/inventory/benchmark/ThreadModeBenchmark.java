@@ -0,0 +1,95 @@
+package com.inventory.benchmark;
+
+import com.inventory.concurrency.VirtualThreads;
+import com.inventory.model.Inventory;
+import com.inventory.repository.InventoryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform-thread pool versus virtual threads at high concurrency.
+ * <p>
+ * Each invocation fires a burst of {@code concurrency} simulated requests and waits for all of them.
+ * A request blocks for {@code blockingMillis} to stand in for network I/O that the in-memory database
+ * does not have, then reads one item through the repository. The platform pool is sized like Tomcat's
+ * default {@code maxThreads}. Throughput is bursts per second; the sample-time percentiles of a burst
+ * are the tail latency of its slowest request. The {@code virtual} mode needs Java 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ThreadModeBenchmark {
+
+    private static final int TOMCAT_DEFAULT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threadMode;
+
+    @Param({"1000", "5000"})
+    public int concurrency;
+
+    @Param({"5"})
+    public int blockingMillis;
+
+    private ConfigurableApplicationContext context;
+    private InventoryRepository inventoryRepository;
+    private ExecutorService executor;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        executor = threadMode.equals("virtual")
+                ? VirtualThreads.newPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_DEFAULT_MAX_THREADS);
+        context = SeededApplication.start(1000, threadMode.equals("virtual"));
+        inventoryRepository = context.getBean(InventoryRepository.class);
+        ids = inventoryRepository.findAll().stream().mapToLong(Inventory::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        executor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<Boolean>> requests = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            requests.add(executor.submit(this::request));
+        }
+        int found = 0;
+        for (Future<Boolean> request : requests) {
+            if (request.get()) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private boolean request() throws InterruptedException {
+        Thread.sleep(blockingMillis);
+        return inventoryRepository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]).isPresent();
+    }
+}
@@ -0,0 +1,308 @@
+package com.inventory.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.InventoryManagementApiApplication;
+import com.inventory.Service.InventoryService;
+import com.inventory.model.Inventory;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a configurable request mix against the API from many concurrent clients and reports throughput
+ * and latency percentiles per operation. See {@link LoadTestOptions} for the options.
+ * <p>
+ * Unless a {@code url} is given, the application is booted on a random local port against a private
+ * in-memory database and seeded with a reproducible catalog. The harness logs in once through
+ * {@code /auth/login} and all clients send that token, so the server sees a single subject: with
+ * {@code inventory.rate-limit.enabled} the whole load shares one client's budget.
+ * <p>
+ * Latency is recorded in HdrHistograms from the moment a request was due. Without a {@code rate} that is
+ * when it was sent. With a {@code rate}, requests are due on a fixed schedule, so a server stall also
+ * counts against the requests that should have been sent while it lasted instead of hiding them
+ * (coordinated omission).
+ */
+public final class LoadTestHarness {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String[] NOUNS = {"Laptop", "Mouse", "Keyboard", "Monitor", "Chair", "Desk", "Lamp", "Cable"};
+    private static final String[] BRANDS = {"Dell", "Logitech", "Corsair", "Apple", "Lenovo", "Asus", "Philips", "Anker"};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        try {
+            String url = options.url();
+            if (url == null) {
+                context = boot(options);
+                url = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            }
+            Map<Operation, OperationStats> stats = run(options, url);
+            report(options, stats, System.out);
+            if (options.output() != null) {
+                writeHistograms(options, stats);
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext boot(LoadTestOptions options) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest");
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(options.applicationProperties());
+        // Passed as command-line arguments so that they take precedence over application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = SpringApplication.run(InventoryManagementApiApplication.class, args);
+
+        Random random = new Random(options.seed());
+        List<Inventory> catalog = new ArrayList<>(options.catalogSize());
+        for (int i = 0; i < options.catalogSize(); i++) {
+            String noun = NOUNS[random.nextInt(NOUNS.length)];
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+            catalog.add(new Inventory(noun + " " + i, brand + " " + noun.toLowerCase() + " model " + i,
+                    BigDecimal.valueOf(random.nextInt(100_000), 2), random.nextInt(200)));
+        }
+        context.getBean(InventoryService.class).createInventoryInBulk(catalog);
+        return context;
+    }
+
+    private static Map<Operation, OperationStats> run(LoadTestOptions options, String url) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        String authorization = "Bearer " + login(http, url);
+        Operation.Catalog catalog = new Operation.Catalog(URI.create(url + "/api/inventory"), itemIds(http, url, authorization));
+        if (catalog.size() == 0 && (options.mix().containsKey(Operation.READ) || options.mix().containsKey(Operation.UPDATE))) {
+            throw new IllegalStateException("The catalog at " + url + " is empty; read and update need items");
+        }
+
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        options.mix().keySet().forEach(operation -> stats.put(operation, new OperationStats()));
+        Operation[] schedule = schedule(options.mix());
+
+        System.out.printf("Load test against %s: %d clients, %d items, mix %s, %s%n", url, options.clients(),
+                catalog.size(), options.mix(), options.rate() > 0 ? options.rate() + " requests/s" : "closed loop");
+
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + options.warmup().toNanos();
+        long endNanos = measureFromNanos + options.duration().toNanos();
+        long intervalNanos = options.rate() > 0 ? (long) (options.clients() * 1e9 / options.rate()) : 0;
+
+        List<Thread> clients = new ArrayList<>(options.clients());
+        for (int c = 0; c < options.clients(); c++) {
+            SplittableRandom random = new SplittableRandom(options.seed() * 31 + c);
+            // Spread the clients' schedules evenly over one interval
+            long firstDueNanos = startNanos + intervalNanos * c / options.clients();
+            Thread client = new Thread(() -> drive(http, authorization, catalog, schedule, stats, random,
+                    firstDueNanos, intervalNanos, endNanos), "load-test-client-" + c);
+            client.start();
+            clients.add(client);
+        }
+
+        LockSupport.parkNanos(measureFromNanos - System.nanoTime());
+        stats.values().forEach(OperationStats::reset);
+        for (Thread client : clients) {
+            client.join();
+        }
+        return stats;
+    }
+
+    // One client: picks an operation from the weighted schedule, sends it and records the outcome
+    private static void drive(HttpClient http, String authorization, Operation.Catalog catalog, Operation[] schedule,
+                              Map<Operation, OperationStats> stats, SplittableRandom random,
+                              long firstDueNanos, long intervalNanos, long endNanos) {
+        long dueNanos = firstDueNanos;
+        while (true) {
+            if (intervalNanos > 0) {
+                LockSupport.parkNanos(dueNanos - System.nanoTime());
+            } else {
+                dueNanos = System.nanoTime();
+            }
+            if (dueNanos >= endNanos) {
+                return;
+            }
+
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            HttpRequest request = operation.request(catalog, random)
+                    .header("Authorization", authorization)
+                    .timeout(REQUEST_TIMEOUT)
+                    .build();
+            int status;
+            try {
+                status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            stats.get(operation).record(System.nanoTime() - dueNanos, status);
+            dueNanos += intervalNanos;
+        }
+    }
+
+    private static String login(HttpClient http, String url) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"testuser\",\"password\":\"password\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with status " + response.statusCode());
+        }
+        return JSON.readTree(response.body()).get("token").asText();
+    }
+
+    // Only the ids are fetched, through the sparse fieldset of the listing endpoint
+    private static long[] itemIds(HttpClient http, String url, String authorization) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url + "/api/inventory/items?fields=id"))
+                        .header("Authorization", authorization)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Listing item ids failed with status " + response.statusCode());
+        }
+        JsonNode items = JSON.readTree(response.body());
+        long[] ids = new long[items.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = items.get(i).get("id").asLong();
+        }
+        return ids;
+    }
+
+    // Each operation appears as often as its weight, so a uniform pick follows the mix
+    private static Operation[] schedule(Map<Operation, Integer> mix) {
+        List<Operation> schedule = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        });
+        return schedule.toArray(Operation[]::new);
+    }
+
+    private static void report(LoadTestOptions options, Map<Operation, OperationStats> stats, PrintStream out) {
+        double seconds = options.duration().toNanos() / 1e9;
+        out.printf("%n%-8s %10s %8s %10s %9s %9s %9s %9s %9s  %s%n",
+                "op", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "error statuses");
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operation = entry.getValue();
+            Histogram histogram = operation.histogram();
+            all.add(histogram);
+            allErrors += operation.errors();
+            printRow(out, entry.getKey().label(), histogram, operation.errors(), seconds, operation.errorStatuses());
+        }
+        printRow(out, "all", all, allErrors, seconds, "");
+    }
+
+    private static void printRow(PrintStream out, String label, Histogram histogram, long errors, double seconds,
+                                 String errorStatuses) {
+        out.printf("%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n", label, histogram.getTotalCount(), errors,
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()), errorStatuses);
+    }
+
+    // Full percentile distributions, one file per operation, readable by HdrHistogram's plotter
+    private static void writeHistograms(LoadTestOptions options, Map<Operation, OperationStats> stats) throws IOException {
+        Files.createDirectories(options.output());
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Path file = options.output().resolve(entry.getKey().label() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().histogram().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(options.output().resolve("summary.txt")))) {
+            report(options, stats, out);
+        }
+        System.out.println("\nPercentile distributions (ms) written to " + options.output());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Latencies in microseconds of successful requests, and failures by status (-1 for I/O errors).
+     * Recording is wait-free, so clients do not contend on it.
+     */
+    private static final class OperationStats {
+
+        private final Recorder recorder = new Recorder(3);
+        private final Map<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+        private Histogram histogram;
+
+        void record(long latencyNanos, int status) {
+            if (status >= 200 && status < 400) {
+                recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            } else {
+                errorsByStatus.computeIfAbsent(status, s -> new LongAdder()).increment();
+            }
+        }
+
+        // Drops everything recorded so far, i.e. the warm-up
+        void reset() {
+            recorder.getIntervalHistogram();
+            errorsByStatus.clear();
+        }
+
+        Histogram histogram() {
+            if (histogram == null) {
+                histogram = recorder.getIntervalHistogram();
+            }
+            return histogram;
+        }
+
+        long errors() {
+            return errorsByStatus.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        String errorStatuses() {
+            Map<Integer, Long> sorted = new TreeMap<>();
+            errorsByStatus.forEach((status, count) -> sorted.put(status, count.sum()));
+            return sorted.isEmpty() ? "" : sorted.toString();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.inventory.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Options of a load-test run, given as {@code key=value} arguments:
+ * <ul>
+ *     <li>{@code clients} – concurrent clients, each with its own connection (default 32)</li>
+ *     <li>{@code duration}, {@code warmup} – measured run and discarded warm-up, e.g. {@code 30s} or {@code 2m}</li>
+ *     <li>{@code rate} – total requests per second to aim for; 0 (default) lets every client send its next
+ *         request as soon as the previous one returns</li>
+ *     <li>{@code mix} – relative operation weights, e.g. {@code read:50,search:20,paged:10,create:10,update:10}</li>
+ *     <li>{@code catalogSize} – items seeded into the booted application (default 10000)</li>
+ *     <li>{@code url} – load an already running instance instead of booting one; nothing is seeded</li>
+ *     <li>{@code output} – directory for the per-operation HdrHistogram percentile files</li>
+ *     <li>{@code seed} – random seed of the catalog and the request sequence (default 42)</li>
+ * </ul>
+ * Any other key containing a dot is passed to the booted application as a property, so that a run can
+ * compare configurations, e.g. {@code inventory.threads.virtual.enabled=true}.
+ */
+record LoadTestOptions(int clients, Duration duration, Duration warmup, double rate,
+                       Map<Operation, Integer> mix, int catalogSize, String url, Path output, long seed,
+                       Map<String, String> applicationProperties) {
+
+    private static final Set<String> KEYS = Set.of("clients", "duration", "warmup", "rate", "mix", "catalogSize",
+            "url", "output", "seed");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        Map<String, String> applicationProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String key = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+            if (key.contains(".")) {
+                applicationProperties.put(key, value);
+            } else if (KEYS.contains(key)) {
+                values.put(key, value);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("clients", "32")),
+                duration(values.getOrDefault("duration", "30s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                Double.parseDouble(values.getOrDefault("rate", "0")),
+                mix(values.getOrDefault("mix", "read:50,search:20,paged:10,create:10,update:10")),
+                Integer.parseInt(values.getOrDefault("catalogSize", "10000")),
+                values.get("url"),
+                values.containsKey("output") ? Path.of(values.get("output")) : null,
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                applicationProperties);
+        if (options.clients() < 1) {
+            throw new IllegalArgumentException("clients must be at least 1");
+        }
+        return options;
+    }
+
+    private static Duration duration(String value) {
+        char unit = value.charAt(value.length() - 1);
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (unit) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Durations end in s or m: " + value);
+        };
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like read:50, got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].strip());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].strip().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+        }
+        return weights;
+    }
+}
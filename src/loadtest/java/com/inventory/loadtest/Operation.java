@@ -0,0 +1,93 @@
+package com.inventory.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The requests a load-test client can send, each against a random item, term or page of the catalog.
+ */
+enum Operation {
+
+    READ {
+        @Override
+        HttpRequest.Builder request(Catalog catalog, SplittableRandom random) {
+            return HttpRequest.newBuilder(catalog.uri("/items/" + catalog.randomId(random))).GET();
+        }
+    },
+    SEARCH {
+        @Override
+        HttpRequest.Builder request(Catalog catalog, SplittableRandom random) {
+            String term = SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+            return HttpRequest.newBuilder(catalog.uri("/items/search?query=" + term + "&limit=20")).GET();
+        }
+    },
+    PAGED {
+        @Override
+        HttpRequest.Builder request(Catalog catalog, SplittableRandom random) {
+            int page = random.nextInt(Math.max(1, catalog.size() / PAGE_SIZE));
+            return HttpRequest.newBuilder(catalog.uri("/items/paged?page=" + page + "&size=" + PAGE_SIZE)).GET();
+        }
+    },
+    CREATE {
+        @Override
+        HttpRequest.Builder request(Catalog catalog, SplittableRandom random) {
+            long n = catalog.nextCreated();
+            return HttpRequest.newBuilder(catalog.uri("/items"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(item("Load test item " + n, random)));
+        }
+    },
+    UPDATE {
+        @Override
+        HttpRequest.Builder request(Catalog catalog, SplittableRandom random) {
+            long id = catalog.randomId(random);
+            return HttpRequest.newBuilder(catalog.uri("/items/" + id))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(item("Item " + id, random)));
+        }
+    };
+
+    static final String[] SEARCH_TERMS = {"laptop", "mouse", "keyboard", "monitor", "chair", "desk", "lamp",
+            "cable", "dell", "logitech", "corsair", "model"};
+    private static final int PAGE_SIZE = 20;
+
+    abstract HttpRequest.Builder request(Catalog catalog, SplittableRandom random);
+
+    String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String item(String name, SplittableRandom random) {
+        return "{\"name\":\"" + name + "\",\"description\":\"Written by the load test\",\"price\":"
+                + random.nextInt(1, 100_000) / 100.0 + ",\"stockQuantity\":" + random.nextInt(200) + "}";
+    }
+
+    /**
+     * The item ids known when the run started, and where to send requests.
+     */
+    record Catalog(URI inventoryApi, long[] ids, AtomicLong created) {
+
+        Catalog(URI inventoryApi, long[] ids) {
+            this(inventoryApi, ids, new AtomicLong());
+        }
+
+        URI uri(String path) {
+            return URI.create(inventoryApi + path);
+        }
+
+        long randomId(SplittableRandom random) {
+            return ids[random.nextInt(ids.length)];
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        long nextCreated() {
+            return created.incrementAndGet();
+        }
+    }
+}
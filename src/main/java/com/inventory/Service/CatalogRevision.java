@@ -0,0 +1,44 @@
+package com.inventory.Service;
+
+import com.inventory.event.InventoryChangeEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter that advances whenever any inventory item changes, used as the ETag of collection responses.
+ * <p>
+ * The counter moves after the change commits and after every in-memory view collection responses are
+ * computed from (search and stock level indexes, aggregate totals, coalesced reads) has applied it, as those
+ * listeners run at {@link #VIEW_LISTENER_ORDER}. A response computed after reading a revision therefore never
+ * contains data older than that revision. It starts over on restart; the tag carries the start time
+ * so that tags handed out by an earlier run never match.
+ */
+@Component
+public class CatalogRevision {
+
+    /**
+     * Order of the change listeners of the views collection responses are computed from, ahead of the
+     * revision's own.
+     */
+    public static final int VIEW_LISTENER_ORDER = 0;
+
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong revision = new AtomicLong();
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        revision.incrementAndGet();
+    }
+
+    /**
+     * The current revision as an entity tag value, without quotes.
+     */
+    public String current() {
+        return runId + "." + revision.get();
+    }
+}
@@ -0,0 +1,402 @@
+package com.inventory.Service;
+
+import com.inventory.datasource.WarehousePartitions;
+import com.inventory.event.InventoryChangeEvent;
+import com.inventory.model.Inventory;
+import com.inventory.repository.InventoryRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Optional write-behind stock counters for items that receive a flood of stock adjustments.
+ * <p>
+ * While an item is hot, its stock quantity lives in memory, split across several stripes that are
+ * locked independently. Each thread adjusts its own stripe, so concurrent reservations on one item
+ * scale with cores instead of queuing on the row lock. A reservation that its stripe cannot cover
+ * locks every stripe and draws on the combined stock, so the total never goes below zero.
+ * <p>
+ * Applied deltas are flushed to the database on a schedule and on shutdown, one coalesced UPDATE
+ * per item per flush. Until a flush commits, listings read from the database lag behind the counters.
+ * While an item is hot, the counters own its stock quantity: item updates keep the other fields and
+ * ignore the submitted stock quantity.
+ */
+@Component
+public class HotStockCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockCounters.class);
+
+    private final boolean enabled;
+    private final int stripeCount;
+    private final List<Long> configuredItemIds;
+    private final InventoryRepository inventoryRepository;
+    private final WarehousePartitions partitions;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, HotCounter> counters = new ConcurrentHashMap<>();
+    // Database stock writes hold the read lock, promoting or demoting an item holds the write lock, so
+    // an item's stock never changes in the database while its counters are seeded or retired
+    private final ReadWriteLock modeLock = new ReentrantReadWriteLock();
+    // Held while deltas are on their way to the database
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Autowired
+    public HotStockCounters(InventoryRepository inventoryRepository, WarehousePartitions partitions,
+                            PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                            @Value("${inventory.hot-stock.enabled:false}") boolean enabled,
+                            @Value("${inventory.hot-stock.stripes:0}") int stripes,
+                            @Value("${inventory.hot-stock.item-ids:}") List<Long> configuredItemIds) {
+        this.inventoryRepository = inventoryRepository;
+        this.partitions = partitions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.stripeCount = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        this.configuredItemIds = configuredItemIds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void promoteConfiguredItems() {
+        if (!enabled) {
+            return;
+        }
+        for (Long id : configuredItemIds) {
+            try {
+                promote(id);
+            } catch (EntityNotFoundException e) {
+                log.warn("Configured hot-stock item {} does not exist", id);
+            }
+        }
+        log.info("Hot-stock counters active for {} items with {} stripes each", counters.size(), stripeCount);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isHot(Long id) {
+        return counters.containsKey(id);
+    }
+
+    /**
+     * The in-memory stock quantity of a hot item, including deltas not yet flushed.
+     *
+     * @return the quantity, or empty if the item is not hot
+     */
+    public OptionalInt available(Long id) {
+        HotCounter counter = counters.get(id);
+        return counter != null ? OptionalInt.of(counter.total()) : OptionalInt.empty();
+    }
+
+    /**
+     * Applies a stock delta to the item's counters if it is hot, otherwise runs the database adjustment.
+     *
+     * @param id                 the id of the inventory item
+     * @param delta              the number of units to add, negative to remove units
+     * @param databaseAdjustment adjusts the stock in the database when the item is not hot
+     * @return the stock quantity after the adjustment
+     * @throws InsufficientStockException if the adjustment would make the stock negative
+     */
+    public int adjust(Long id, int delta, IntSupplier databaseAdjustment) {
+        if (!enabled) {
+            return databaseAdjustment.getAsInt();
+        }
+        while (true) {
+            HotCounter counter = counters.get(id);
+            if (counter != null) {
+                OptionalInt adjusted = counter.adjust(delta);
+                if (adjusted.isPresent()) {
+                    return adjusted.getAsInt();
+                }
+                // Demoted in the meantime; go through the database
+            }
+            modeLock.readLock().lock();
+            try {
+                if (!counters.containsKey(id)) {
+                    return databaseAdjustment.getAsInt();
+                }
+            } finally {
+                modeLock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Runs a database write that may change stock quantities while no item is being promoted or demoted.
+     */
+    public <T> T withStableMode(Supplier<T> write) {
+        if (!enabled) {
+            return write.get();
+        }
+        modeLock.readLock().lock();
+        try {
+            return write.get();
+        } finally {
+            modeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves an item's stock into in-memory counters, seeded from its current database quantity.
+     *
+     * @throws EntityNotFoundException if no item exists with the given id
+     * @throws IllegalStateException   if hot-stock mode is disabled
+     */
+    public void promote(Long id) {
+        if (!enabled) {
+            throw new IllegalStateException("Hot-stock mode is disabled (inventory.hot-stock.enabled)");
+        }
+        modeLock.writeLock().lock();
+        try {
+            if (counters.containsKey(id)) {
+                return;
+            }
+            int stockQuantity = partitions.call(partitions.ofId(id), () -> transactionTemplate.execute(status ->
+                    inventoryRepository.findById(id)
+                            .map(Inventory::getStockQuantity)
+                            .orElseThrow(() -> new EntityNotFoundException("Inventory not found with ID: " + id))));
+            counters.put(id, new HotCounter(id, stockQuantity, stripeCount));
+        } finally {
+            modeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes an item's pending deltas to the database and returns its stock to the database path.
+     */
+    public void demote(Long id) {
+        modeLock.writeLock().lock();
+        flushLock.lock();
+        try {
+            HotCounter counter = counters.get(id);
+            if (counter == null) {
+                return;
+            }
+            counter.lockAll();
+            try {
+                int pending = counter.drainPendingLocked();
+                try {
+                    writeDeltas(partitions.ofId(id), Map.of(id, pending));
+                } catch (RuntimeException e) {
+                    counter.restorePending(pending);
+                    throw e;
+                }
+                counter.closed = true;
+                counters.remove(id);
+            } finally {
+                counter.unlockAll();
+            }
+        } finally {
+            flushLock.unlock();
+            modeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the deltas applied since the last flush to the database, one UPDATE per item in a single
+     * transaction per partition. If the write to a partition fails, its deltas are kept for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${inventory.hot-stock.flush-interval-ms:100}")
+    public void flush() {
+        if (counters.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<Long, Integer> deltas = new LinkedHashMap<>();
+            counters.forEach((id, counter) -> {
+                int delta = counter.drainPending();
+                if (delta != 0) {
+                    deltas.put(id, delta);
+                }
+            });
+            partitions.groupByPartition(deltas.keySet(), partitions::ofId).forEach((partition, ids) -> {
+                Map<Long, Integer> partitionDeltas = new LinkedHashMap<>();
+                ids.forEach(id -> partitionDeltas.put(id, deltas.get(id)));
+                try {
+                    writeDeltas(partition, partitionDeltas);
+                } catch (RuntimeException e) {
+                    log.warn("Flushing hot-stock deltas for {} items failed, retrying on the next flush",
+                            partitionDeltas.size(), e);
+                    partitionDeltas.forEach((id, delta) -> {
+                        HotCounter counter = counters.get(id);
+                        if (counter != null) {
+                            counter.restorePending(delta);
+                        }
+                    });
+                }
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void writeDeltas(int partition, Map<Long, Integer> deltas) {
+        if (deltas.values().stream().allMatch(delta -> delta == 0)) {
+            return;
+        }
+        partitions.run(partition, () -> transactionTemplate.executeWithoutResult(status -> deltas.forEach((id, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            inventoryRepository.applyStockDelta(id, delta).ifPresentOrElse(
+                    // The native UPDATE bypasses the entity listener, so announce the change explicitly
+                    change -> eventPublisher.publishEvent(InventoryChangeEvent.stockAdjusted(id, change.getStockQuantity(),
+                            change.getVersion())),
+                    () -> log.warn("Dropping stock delta {} for inventory ID {} that no longer exists", delta, id));
+        })));
+    }
+
+    /**
+     * Stock of one hot item, split across stripes. Each stripe holds part of the available units and the
+     * deltas applied through it since the last flush.
+     */
+    private static final class HotCounter {
+
+        private final Long id;
+        private final Stripe[] stripes;
+        // Written with every stripe locked, read with at least one stripe locked
+        private boolean closed;
+
+        HotCounter(Long id, int stockQuantity, int stripeCount) {
+            this.id = id;
+            this.stripes = new Stripe[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new Stripe();
+                stripes[i].available = stockQuantity / stripeCount + (i < stockQuantity % stripeCount ? 1 : 0);
+            }
+        }
+
+        // Empty if the counter was closed by a demotion
+        OptionalInt adjust(int delta) {
+            Stripe home = stripes[(int) (Thread.currentThread().getId() % stripes.length)];
+            home.lock();
+            try {
+                if (closed) {
+                    return OptionalInt.empty();
+                }
+                if (home.available + delta >= 0) {
+                    home.available += delta;
+                    home.pending += delta;
+                    return OptionalInt.of(total());
+                }
+            } finally {
+                home.unlock();
+            }
+            return adjustAcrossStripes(delta);
+        }
+
+        // The home stripe is short, so take the remainder from the others with every stripe locked
+        private OptionalInt adjustAcrossStripes(int delta) {
+            lockAll();
+            try {
+                if (closed) {
+                    return OptionalInt.empty();
+                }
+                int total = total();
+                if (total + delta < 0) {
+                    throw new InsufficientStockException(id, delta);
+                }
+                int remaining = -delta;
+                for (Stripe stripe : stripes) {
+                    int taken = Math.min(stripe.available, remaining);
+                    stripe.available -= taken;
+                    stripe.pending -= taken;
+                    remaining -= taken;
+                }
+                return OptionalInt.of(total + delta);
+            } finally {
+                unlockAll();
+            }
+        }
+
+        int total() {
+            int total = 0;
+            for (Stripe stripe : stripes) {
+                total += stripe.available;
+            }
+            return total;
+        }
+
+        int drainPending() {
+            int pending = 0;
+            for (Stripe stripe : stripes) {
+                stripe.lock();
+                try {
+                    pending += stripe.pending;
+                    stripe.pending = 0;
+                } finally {
+                    stripe.unlock();
+                }
+            }
+            return pending;
+        }
+
+        // Caller holds every stripe lock
+        int drainPendingLocked() {
+            int pending = 0;
+            for (Stripe stripe : stripes) {
+                pending += stripe.pending;
+                stripe.pending = 0;
+            }
+            return pending;
+        }
+
+        void restorePending(int delta) {
+            stripes[0].lock();
+            try {
+                stripes[0].pending += delta;
+            } finally {
+                stripes[0].unlock();
+            }
+        }
+
+        // Always in index order, so two threads locking every stripe cannot deadlock
+        void lockAll() {
+            for (Stripe stripe : stripes) {
+                stripe.lock();
+            }
+        }
+
+        void unlockAll() {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Stripe extends ReentrantLock {
+        volatile int available;
+        int pending;
+        // Keeps neighbouring stripes on separate cache lines
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+}
@@ -0,0 +1,11 @@
+package com.inventory.Service;
+
+/**
+ * Thrown when a stock adjustment would take an item's quantity below zero.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(Long id, int delta) {
+        super("Insufficient stock for inventory ID " + id + " to apply adjustment of " + delta);
+    }
+}
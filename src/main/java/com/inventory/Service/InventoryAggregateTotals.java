@@ -0,0 +1,237 @@
+package com.inventory.Service;
+
+import com.inventory.datasource.WarehousePartitions;
+import com.inventory.event.InventoryChangeEvent;
+import com.inventory.model.InventoryAggregates;
+import com.inventory.repository.InventoryRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Running catalog totals for the aggregates endpoint.
+ * <p>
+ * Each item's contribution (price and stock quantity) is kept by id, so every committed
+ * {@link InventoryChangeEvent} adjusts the totals in O(1) by swapping the old contribution for the new
+ * one, and reading the totals never touches the database. The totals are loaded once the application
+ * is ready and then rebuilt from the table on a schedule; a reconciliation that finds them drifted
+ * logs the difference. Like the indexes, the totals track the row version each contribution was taken at
+ * ({@link ItemVersions}), so events delivered out of order cannot replace a newer state with an older one
+ * or bring back a deleted item.
+ */
+@Component
+public class InventoryAggregateTotals {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryAggregateTotals.class);
+
+    private final InventoryRepository inventoryRepository;
+    private final EntityManager entityManager;
+    private final WarehousePartitions partitions;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Guarded by this
+    private Map<Long, Contribution> contributions = new HashMap<>();
+    private Totals totals = Totals.EMPTY;
+    private final ItemVersions versions = new ItemVersions();
+    // Stock adjustments to items whose price is not known yet, held until their row or creation arrives
+    private final Map<Long, PendingStock> pendingStock = new HashMap<>();
+    // Ids changed by events while a rebuild is running, which the rebuild may not have read
+    private Set<Long> changedDuringRebuild;
+    private volatile boolean ready;
+
+    @Autowired
+    public InventoryAggregateTotals(InventoryRepository inventoryRepository, EntityManager entityManager,
+                                    WarehousePartitions partitions, PlatformTransactionManager transactionManager) {
+        this.inventoryRepository = inventoryRepository;
+        this.entityManager = entityManager;
+        this.partitions = partitions;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Recomputes the totals from the table and replaces the running ones. Readers keep seeing the
+     * previous totals until the new ones are complete.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.aggregates.reconcile-interval-ms:300000}",
+            fixedDelayString = "${inventory.aggregates.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        synchronized (this) {
+            changedDuringRebuild = new HashSet<>();
+        }
+
+        Map<Long, Row> rows = new HashMap<>();
+        partitions.forEachPartition(partition -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (var items = inventoryRepository.streamAll()) {
+                items.forEach(item -> {
+                    rows.put(item.getId(), new Row(new Contribution(item.getPrice(), item.getStockQuantity()),
+                            item.getVersion()));
+                    entityManager.detach(item);
+                });
+            }
+        }));
+
+        synchronized (this) {
+            Map<Long, Contribution> rebuilt = new HashMap<>();
+            rows.forEach((id, row) -> {
+                if (versions.advance(id, row.version())) {
+                    rebuilt.put(id, withPendingStock(id, row.version(), row.contribution()));
+                } else if (contributions.containsKey(id)) {
+                    // An event newer than the row was applied while the rebuild was reading
+                    rebuilt.put(id, contributions.get(id));
+                }
+            });
+            // Items created while the rebuild was reading may have been missed by it
+            for (Long id : changedDuringRebuild) {
+                if (!rebuilt.containsKey(id) && contributions.containsKey(id)) {
+                    rebuilt.put(id, contributions.get(id));
+                }
+            }
+            // Adjustments to items that do not exist, unless their creation may still be on its way
+            pendingStock.keySet().retainAll(changedDuringRebuild);
+
+            Totals reconciled = Totals.EMPTY;
+            for (Contribution contribution : rebuilt.values()) {
+                reconciled = reconciled.plus(contribution);
+            }
+            if (ready && !reconciled.equals(totals)) {
+                log.warn("Inventory aggregates drifted: running {} but table has {}", totals, reconciled);
+            }
+
+            contributions = rebuilt;
+            totals = reconciled;
+            changedDuringRebuild = null;
+        }
+        ready = true;
+    }
+
+    @Order(CatalogRevision.VIEW_LISTENER_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onInventoryChange(InventoryChangeEvent event) {
+        Long id = event.id();
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(id);
+        }
+        if (event.type() == InventoryChangeEvent.Type.DELETED) {
+            versions.delete(id);
+            pendingStock.remove(id);
+            replace(id, null);
+            return;
+        }
+
+        Contribution previous = contributions.get(id);
+        if (event.type() == InventoryChangeEvent.Type.STOCK_ADJUSTED && previous == null) {
+            // The price is unknown until the item's row or creation event arrives, which may be later
+            // than the adjustment when events of concurrent transactions are delivered out of order
+            if (versions.isCurrent(id, event.version())) {
+                log.debug("Holding stock adjustment of item {} until its price is known", id);
+                PendingStock adjusted = new PendingStock(event.stockQuantity(), event.version());
+                pendingStock.merge(id, adjusted, (held, later) -> later.isNewerThan(held.version()) ? later : held);
+            }
+            return;
+        }
+        if (!versions.advance(id, event.version())) {
+            return;
+        }
+
+        BigDecimal price = event.type() == InventoryChangeEvent.Type.STOCK_ADJUSTED ? previous.price() : event.price();
+        replace(id, withPendingStock(id, event.version(), new Contribution(price, event.stockQuantity())));
+    }
+
+    // Swaps the item's contribution to the totals, removing it for null
+    private void replace(Long id, Contribution current) {
+        Contribution previous = current == null ? contributions.remove(id) : contributions.put(id, current);
+        if (previous != null) {
+            totals = totals.minus(previous);
+        }
+        if (current != null) {
+            totals = totals.plus(current);
+        }
+    }
+
+    // The contribution with the stock of a held adjustment newer than the state it was read at
+    private Contribution withPendingStock(Long id, Long version, Contribution contribution) {
+        PendingStock pending = pendingStock.remove(id);
+        if (pending == null || !pending.isNewerThan(version)) {
+            return contribution;
+        }
+        versions.advance(id, pending.version());
+        return new Contribution(contribution.price(), pending.stockQuantity());
+    }
+
+    /**
+     * Whether the initial load has completed and the totals cover the whole catalog.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized InventoryAggregates snapshot() {
+        return totals.toAggregates();
+    }
+
+    private record Row(Contribution contribution, Long version) {
+    }
+
+    private record PendingStock(int stockQuantity, Long version) {
+
+        // Without versions the later of two states is taken as the newer
+        boolean isNewerThan(Long other) {
+            return version == null || other == null || version > other;
+        }
+    }
+
+    private record Contribution(BigDecimal price, int stockQuantity) {
+
+        BigDecimal value() {
+            return price == null ? BigDecimal.ZERO : price.multiply(BigDecimal.valueOf(stockQuantity));
+        }
+    }
+
+    private record Totals(long itemCount, long outOfStockCount, long totalUnits, BigDecimal totalValue) {
+
+        static final Totals EMPTY = new Totals(0, 0, 0, BigDecimal.ZERO);
+
+        Totals plus(Contribution c) {
+            return new Totals(itemCount + 1, outOfStockCount + (c.stockQuantity() <= 0 ? 1 : 0),
+                    totalUnits + c.stockQuantity(), totalValue.add(c.value()));
+        }
+
+        Totals minus(Contribution c) {
+            return new Totals(itemCount - 1, outOfStockCount - (c.stockQuantity() <= 0 ? 1 : 0),
+                    totalUnits - c.stockQuantity(), totalValue.subtract(c.value()));
+        }
+
+        // BigDecimal.equals also compares scale, which differs after adding and removing values
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Totals other && itemCount == other.itemCount && outOfStockCount == other.outOfStockCount
+                    && totalUnits == other.totalUnits && totalValue.compareTo(other.totalValue) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(itemCount) * 31 + Long.hashCode(totalUnits);
+        }
+
+        InventoryAggregates toAggregates() {
+            return new InventoryAggregates(itemCount, outOfStockCount, totalUnits, totalValue);
+        }
+    }
+}
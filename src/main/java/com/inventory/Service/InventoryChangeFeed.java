@@ -0,0 +1,320 @@
+package com.inventory.Service;
+
+import com.inventory.event.InventoryChangeEvent;
+import com.inventory.model.InventoryChange;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Feed of committed inventory mutations that subscribers can follow and resume.
+ * <p>
+ * Every committed {@link InventoryChangeEvent} is numbered and appended to a fixed-size ring buffer, so
+ * the feed holds the most recent changes only and appending never allocates beyond the change itself.
+ * Each subscriber keeps its own position in the ring and is drained on a small delivery pool, so a
+ * writer only appends and signals; it never waits for a subscriber. A subscriber that falls so far
+ * behind that the ring has overwritten changes it has not seen yet is sent a resync notice and dropped.
+ * The same happens when it asks to resume from a position the feed no longer holds.
+ * <p>
+ * Delivering to a subscriber may block, e.g. on a network write to a stalled client. A subscriber whose
+ * delivery takes longer than {@code inventory.change-feed.send-timeout-ms} is dropped, and the pool gets
+ * an extra thread for as long as the blocked one is held, so stalled subscribers never take delivery
+ * away from the others. Once the blocked delivery returns, the subscriber is sent a resync notice.
+ * <p>
+ * Positions are exposed as event ids of the form {@code <run>.<sequence>}. Sequences start over on
+ * restart, and the run part makes sure an id handed out by an earlier run is never mistaken for one
+ * of this run.
+ */
+@Component
+public class InventoryChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryChangeFeed.class);
+
+    private static final int DELIVERY_BATCH_SIZE = 256;
+    // Marks a delivery that the watchdog declared stalled
+    private static final long STALLED = -1;
+
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final InventoryChange[] ring;
+    private final int maxSubscribers;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final int deliveryThreads;
+    private final ThreadPoolExecutor delivery;
+    private final long sendTimeoutNanos;
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor();
+    private final LongAdder resyncs = new LongAdder();
+    private final LongAdder stalledDrops = new LongAdder();
+
+    // Delivery threads blocked by stalled subscribers, each replaced in the pool; guarded by delivery
+    private int blockedThreads;
+
+    // Sequence of the newest change; guarded by this
+    private long latestSequence;
+
+    @Autowired
+    public InventoryChangeFeed(@Value("${inventory.change-feed.capacity:10000}") int capacity,
+                               @Value("${inventory.change-feed.delivery-threads:4}") int deliveryThreads,
+                               @Value("${inventory.change-feed.max-subscribers:1000}") int maxSubscribers,
+                               @Value("${inventory.change-feed.send-timeout-ms:5000}") long sendTimeoutMillis) {
+        this.ring = new InventoryChange[capacity];
+        this.maxSubscribers = maxSubscribers;
+        this.deliveryThreads = deliveryThreads;
+        this.delivery = new ThreadPoolExecutor(deliveryThreads, deliveryThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        long sweepMillis = Math.max(1, sendTimeoutMillis / 2);
+        watchdog.scheduleWithFixedDelay(this::dropStalledSubscribers, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        synchronized (this) {
+            long sequence = ++latestSequence;
+            ring[(int) (sequence % ring.length)] = InventoryChange.of(sequence, event);
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.signal();
+        }
+    }
+
+    /**
+     * Follows the feed from the given position.
+     *
+     * @param lastEventId the id of the last change the subscriber has seen, or null to receive only
+     *                    changes committed from now on
+     * @param subscriber  receives the changes in sequence order on a delivery thread
+     * @return a handle that cancels the subscription
+     * @throws IllegalStateException if the maximum number of subscribers is already reached
+     */
+    public Runnable subscribe(String lastEventId, Subscriber subscriber) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new IllegalStateException("Change feed subscriber limit of " + maxSubscribers + " reached");
+        }
+        Subscription subscription;
+        synchronized (this) {
+            // Registered while holding the lock, so no change can slip between the start position and the first signal
+            long position = lastEventId == null ? latestSequence : parsePosition(lastEventId);
+            subscription = new Subscription(subscriber, position);
+            subscriptions.add(subscription);
+        }
+        subscription.signal();
+        return subscription::close;
+    }
+
+    /**
+     * The event id of the newest change, or of the start of the feed if nothing has changed yet.
+     */
+    public synchronized String latestEventId() {
+        return eventId(latestSequence);
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    public long getResyncs() {
+        return resyncs.sum();
+    }
+
+    public long getStalledDrops() {
+        return stalledDrops.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        delivery.shutdownNow();
+    }
+
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            subscription.dropIfStalled(now);
+        }
+    }
+
+    // Grows the pool by one for every thread a stalled subscriber holds, and shrinks it once released
+    private void adjustForBlockedThreads(int delta) {
+        synchronized (delivery) {
+            blockedThreads += delta;
+            int size = deliveryThreads + blockedThreads;
+            if (delta > 0) {
+                delivery.setMaximumPoolSize(size);
+                delivery.setCorePoolSize(size);
+            } else {
+                delivery.setCorePoolSize(size);
+                delivery.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private String eventId(long sequence) {
+        return runId + "." + sequence;
+    }
+
+    // Unknown or foreign ids map to -1, which is always outside the ring and triggers a resync
+    private long parsePosition(String eventId) {
+        int separator = eventId.lastIndexOf('.');
+        if (separator < 0 || !eventId.substring(0, separator).equals(runId)) {
+            return -1;
+        }
+        try {
+            long sequence = Long.parseLong(eventId.substring(separator + 1));
+            return sequence <= latestSequence ? sequence : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Changes after the position, or null if some of them have already been overwritten
+    private synchronized List<InventoryChange> changesAfter(long position, int limit) {
+        long oldestRetained = Math.max(1, latestSequence - ring.length + 1);
+        if (position < 0 || position + 1 < oldestRetained) {
+            return null;
+        }
+        List<InventoryChange> changes = new ArrayList<>();
+        for (long sequence = position + 1; sequence <= latestSequence && changes.size() < limit; sequence++) {
+            changes.add(ring[(int) (sequence % ring.length)]);
+        }
+        return changes;
+    }
+
+    /**
+     * Receives changes from the feed. Methods are called on a delivery thread, one at a time per
+     * subscription. A subscriber that throws is dropped.
+     */
+    public interface Subscriber {
+
+        void onChange(String eventId, InventoryChange change);
+
+        /**
+         * The subscriber has missed changes and is dropped. It should reload the catalog and subscribe
+         * again from the given event id; changes replayed from there are already part of the reload.
+         */
+        void onResync(String lastEventId);
+    }
+
+    private final class Subscription {
+
+        private final Subscriber subscriber;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // System.nanoTime() when the running delivery started, 0 while idle, STALLED once the watchdog dropped it
+        private final AtomicLong deliveringSince = new AtomicLong();
+        // Only touched by the drain that holds the scheduled flag
+        private long position;
+        private volatile boolean closed;
+
+        Subscription(Subscriber subscriber, long position) {
+            this.subscriber = subscriber;
+            this.position = position;
+        }
+
+        // At most one drain is queued or running per subscription, so the delivery queue stays bounded
+        void signal() {
+            if (closed || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                delivery.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                scheduled.set(false);
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+
+        void dropIfStalled(long now) {
+            long since = deliveringSince.get();
+            if (since > 0 && now - since > sendTimeoutNanos && deliveringSince.compareAndSet(since, STALLED)) {
+                close();
+                stalledDrops.increment();
+                adjustForBlockedThreads(1);
+                log.warn("Dropping change feed subscriber whose delivery has been blocked for over {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+            }
+        }
+
+        // Runs one delivery under the watchdog. If it was declared stalled meanwhile, the subscriber is sent
+        // a resync notice (unless the delivery was one), still on a thread the pool has replaced.
+        private void deliver(Runnable delivery, boolean resyncIfStalled) {
+            deliveringSince.set(Math.max(1, System.nanoTime()));
+            try {
+                delivery.run();
+            } finally {
+                if (deliveringSince.getAndSet(0) == STALLED) {
+                    try {
+                        if (resyncIfStalled) {
+                            subscriber.onResync(latestEventId());
+                        }
+                    } catch (RuntimeException e) {
+                        log.debug("Resync notice to a stalled change feed subscriber failed", e);
+                    } finally {
+                        adjustForBlockedThreads(-1);
+                    }
+                }
+            }
+        }
+
+        private void drain() {
+            long delivered;
+            try {
+                while (!closed) {
+                    List<InventoryChange> changes = changesAfter(position, DELIVERY_BATCH_SIZE);
+                    if (changes == null) {
+                        close();
+                        resyncs.increment();
+                        String resumeEventId = latestEventId();
+                        deliver(() -> subscriber.onResync(resumeEventId), false);
+                        return;
+                    }
+                    if (changes.isEmpty()) {
+                        break;
+                    }
+                    for (InventoryChange change : changes) {
+                        if (closed) {
+                            return;
+                        }
+                        deliver(() -> subscriber.onChange(eventId(change.sequence()), change), true);
+                        position = change.sequence();
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Dropping change feed subscriber that failed", e);
+                close();
+            } finally {
+                delivered = position;
+                scheduled.set(false);
+            }
+            // A change appended after the last read but before the flag was cleared would otherwise wait
+            // for the next change to be delivered
+            if (!closed && hasChangesAfter(delivered)) {
+                signal();
+            }
+        }
+    }
+
+    private synchronized boolean hasChangesAfter(long position) {
+        return latestSequence > position;
+    }
+}
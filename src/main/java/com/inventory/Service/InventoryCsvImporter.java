@@ -0,0 +1,173 @@
+package com.inventory.Service;
+
+import com.inventory.model.BulkItemResult;
+import com.inventory.model.ImportProgress;
+import com.inventory.model.Inventory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Imports CSV catalogs of any size by upserting rows by name.
+ * <p>
+ * The import is a pipeline: the calling thread reads batches of {@code inventory.bulk.chunk-size}
+ * records from the stream and hands each batch to a parser pool that validates and converts it, then
+ * writes converted batches in input order, one transaction each, through
+ * {@link InventoryService#upsertInventoryByName(List)}. Reading and parsing run at most a few batches
+ * ahead of the writes, so memory stays bounded by the batch size and the import runs at the speed the
+ * database accepts writes.
+ */
+@Component
+public class InventoryCsvImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryCsvImporter.class);
+
+    private final InventoryService inventoryService;
+    private final ExecutorService parsers;
+    private final int batchSize;
+    private final int maxBatchesAhead;
+
+    @Autowired
+    public InventoryCsvImporter(InventoryService inventoryService,
+                                @Value("${inventory.bulk.chunk-size:500}") int batchSize,
+                                @Value("${inventory.import.parser-threads:0}") int parserThreads) {
+        int threads = parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+        this.inventoryService = inventoryService;
+        this.parsers = Executors.newFixedThreadPool(threads);
+        this.batchSize = batchSize;
+        this.maxBatchesAhead = threads * 2;
+    }
+
+    /**
+     * Reads the rest of the CSV input and writes its rows. Rows that fail validation are rejected
+     * individually; a batch whose transaction fails is reported as failed and the import continues.
+     * A record that cannot be read at all, such as one with an unterminated quote, ends the import
+     * after the rows before it have been written.
+     *
+     * @param csv      the input, positioned after its header
+     * @param listener receives a progress report after every written batch and a final one
+     * @return the final progress report
+     */
+    public ImportProgress importCsv(InventoryCsvReader csv, Consumer<ImportProgress> listener) throws IOException {
+        long startedAt = System.nanoTime();
+        Totals totals = new Totals();
+        BulkItemResult unreadable = null;
+
+        Deque<Future<List<InventoryCsvReader.ParsedRow>>> parsing = new ArrayDeque<>();
+        try {
+            while (true) {
+                List<InventoryCsvReader.Row> rows;
+                try {
+                    rows = csv.readBatch(batchSize);
+                } catch (IllegalArgumentException e) {
+                    unreadable = BulkItemResult.failure(csv.getRecordNumber(), null, BulkItemResult.Status.REJECTED,
+                            e.getMessage());
+                    break;
+                }
+                if (rows.isEmpty()) {
+                    break;
+                }
+                parsing.add(parsers.submit(() -> rows.stream().map(csv::parse).toList()));
+                if (parsing.size() > maxBatchesAhead) {
+                    listener.accept(write(await(parsing.poll()), totals));
+                }
+            }
+            while (!parsing.isEmpty()) {
+                listener.accept(write(await(parsing.poll()), totals));
+            }
+        } finally {
+            parsing.forEach(batch -> batch.cancel(true));
+        }
+
+        List<BulkItemResult> errors = List.of();
+        if (unreadable != null) {
+            totals.rowsProcessed++;
+            totals.rejected++;
+            errors = List.of(unreadable);
+        }
+        ImportProgress done = totals.report(errors, true);
+        listener.accept(done);
+        log.info("CSV import of {} rows finished in {} ms: {} created, {} updated, {} rejected, {} failed",
+                done.rowsProcessed(), (System.nanoTime() - startedAt) / 1_000_000,
+                done.created(), done.updated(), done.rejected(), done.failed());
+        return done;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsers.shutdownNow();
+    }
+
+    private ImportProgress write(List<InventoryCsvReader.ParsedRow> batch, Totals totals) {
+        List<Inventory> items = new ArrayList<>(batch.size());
+        List<Integer> recordNumbers = new ArrayList<>(batch.size());
+        List<BulkItemResult> errors = new ArrayList<>();
+        for (InventoryCsvReader.ParsedRow row : batch) {
+            if (row.error() != null) {
+                errors.add(BulkItemResult.failure(row.number(), null, BulkItemResult.Status.REJECTED, row.error()));
+                totals.rejected++;
+            } else {
+                items.add(row.item());
+                recordNumbers.add(row.number());
+            }
+        }
+
+        for (BulkItemResult result : inventoryService.upsertInventoryByName(items)) {
+            switch (result.getStatus()) {
+                case CREATED -> totals.created++;
+                case UPDATED -> totals.updated++;
+                default -> {
+                    totals.failed++;
+                    // Results are indexed by position in the batch; report the CSV record instead
+                    errors.add(new BulkItemResult(recordNumbers.get(result.getIndex()), result.getId(),
+                            result.getStatus(), result.getError()));
+                }
+            }
+        }
+        totals.rowsProcessed += batch.size();
+        errors.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        return totals.report(errors, false);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("CSV import was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Parsing CSV rows failed", e.getCause());
+        }
+    }
+
+    private static final class Totals {
+
+        long rowsProcessed;
+        long created;
+        long updated;
+        long rejected;
+        long failed;
+
+        ImportProgress report(List<BulkItemResult> errors, boolean done) {
+            return new ImportProgress(rowsProcessed, created, updated, rejected, failed, errors, done);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.inventory.Service;
+
+import com.inventory.model.Inventory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads inventory items from CSV text (RFC 4180: comma separated, fields optionally enclosed in double
+ * quotes, quotes escaped by doubling, quoted fields may span lines).
+ * <p>
+ * The first record is a header naming the columns, in any order and case: {@code name}, {@code price}
+ * and {@code stockQuantity} are required, {@code description} and {@code warehouse} are optional. Records are read in batches
+ * straight from the underlying reader, so the input is never held in memory as a whole. Splitting a
+ * record into fields happens while reading; converting the fields into an item is done by
+ * {@link #parse(Row)}, which is stateless and may run on other threads.
+ */
+public class InventoryCsvReader {
+
+    // Guards against an unterminated quote swallowing the rest of the input
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    // Length of the name, description and warehouse columns
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final List<String> COLUMNS = List.of("name", "description", "price", "stockquantity", "warehouse");
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    // Column index of each known column, -1 if absent; in the order of COLUMNS
+    private final int[] columnIndex = new int[COLUMNS.size()];
+    private final int columnCount;
+    private int recordNumber;
+
+    /**
+     * Reads and checks the header.
+     *
+     * @throws IllegalArgumentException if the input is empty or the header names unknown, duplicate or
+     *                                  too few columns
+     */
+    public InventoryCsvReader(Reader in) throws IOException {
+        this.in = in;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input is empty");
+        }
+
+        Arrays.fill(columnIndex, -1);
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).strip().toLowerCase(Locale.ROOT);
+            // A byte order mark left in front of the first column by spreadsheet exports
+            if (i == 0 && !column.isEmpty() && column.charAt(0) == '\uFEFF') {
+                column = column.substring(1);
+            }
+            int known = COLUMNS.indexOf(column);
+            if (known < 0) {
+                throw new IllegalArgumentException("Unknown CSV column: " + header.get(i));
+            }
+            if (columnIndex[known] >= 0) {
+                throw new IllegalArgumentException("Duplicate CSV column: " + header.get(i));
+            }
+            columnIndex[known] = i;
+        }
+        if (columnIndex[0] < 0 || columnIndex[2] < 0 || columnIndex[3] < 0) {
+            throw new IllegalArgumentException("CSV header must contain the columns name, price and stockQuantity");
+        }
+        this.columnCount = header.size();
+    }
+
+    /**
+     * Reads up to {@code max} records, skipping blank lines.
+     *
+     * @return the records read, empty at the end of the input
+     * @throws IllegalArgumentException if a record is malformed beyond recovery, e.g. a quote is never closed
+     */
+    public List<Row> readBatch(int max) throws IOException {
+        List<Row> rows = new ArrayList<>(max);
+        while (rows.size() < max) {
+            List<String> fields = readRecord();
+            if (fields == null) {
+                break;
+            }
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue;
+            }
+            rows.add(new Row(recordNumber, fields));
+        }
+        return rows;
+    }
+
+    /**
+     * Converts a record into a new, unsaved item.
+     *
+     * @return the item, or the reason the record was rejected
+     */
+    public ParsedRow parse(Row row) {
+        List<String> fields = row.fields();
+        if (fields.size() != columnCount) {
+            return ParsedRow.rejected(row.number(), "Expected " + columnCount + " fields but found " + fields.size());
+        }
+
+        String name = fields.get(columnIndex[0]).strip();
+        if (name.isEmpty()) {
+            return ParsedRow.rejected(row.number(), "name is required");
+        }
+        if (name.length() > MAX_TEXT_LENGTH) {
+            return ParsedRow.rejected(row.number(), "name must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+        String description = columnIndex[1] < 0 ? null : fields.get(columnIndex[1]);
+        if (description != null && description.length() > MAX_TEXT_LENGTH) {
+            return ParsedRow.rejected(row.number(), "description must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+
+        BigDecimal price;
+        try {
+            price = new BigDecimal(fields.get(columnIndex[2]).strip());
+        } catch (NumberFormatException e) {
+            return ParsedRow.rejected(row.number(), "price must be a decimal number");
+        }
+        if (price.signum() < 0) {
+            return ParsedRow.rejected(row.number(), "price must not be negative");
+        }
+        if (price.scale() > 2) {
+            return ParsedRow.rejected(row.number(), "price must have at most 2 decimal places");
+        }
+
+        int stockQuantity;
+        try {
+            stockQuantity = Integer.parseInt(fields.get(columnIndex[3]).strip());
+        } catch (NumberFormatException e) {
+            return ParsedRow.rejected(row.number(), "stockQuantity must be a whole number");
+        }
+        if (stockQuantity < 0) {
+            return ParsedRow.rejected(row.number(), "stockQuantity must not be negative");
+        }
+
+        String warehouse = columnIndex[4] < 0 ? null : fields.get(columnIndex[4]).strip();
+        if (warehouse != null && warehouse.length() > MAX_TEXT_LENGTH) {
+            return ParsedRow.rejected(row.number(), "warehouse must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+
+        Inventory item = new Inventory(name, description, price, stockQuantity);
+        item.setWarehouse(warehouse == null || warehouse.isEmpty() ? null : warehouse);
+        return new ParsedRow(row.number(), item, null);
+    }
+
+    /**
+     * The number of the last record read; the header is record 1.
+     */
+    public int getRecordNumber() {
+        return recordNumber;
+    }
+
+    // The fields of the next record, or null at the end of the input
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        recordNumber++;
+        for (; ; c = read()) {
+            if (c < 0) {
+                if (quoted) {
+                    throw new IllegalArgumentException("Record " + recordNumber + " has an unterminated quoted field");
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new IllegalArgumentException("Record " + recordNumber + " is longer than "
+                        + MAX_RECORD_LENGTH + " characters");
+            }
+
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                } else if (peek() == '"') {
+                    read();
+                    field.append('"');
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    /**
+     * One record split into fields; {@code number} counts records from the header, which is record 1.
+     */
+    public record Row(int number, List<String> fields) {
+    }
+
+    /**
+     * A record converted into an item, or the reason it was rejected.
+     */
+    public record ParsedRow(int number, Inventory item, String error) {
+
+        static ParsedRow rejected(int number, String error) {
+            return new ParsedRow(number, null, error);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.inventory.Service;
+
+import com.inventory.model.Inventory;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Continuation token for keyset pagination. It records the sort order and the (sortKey, id)
+ * position of the last item returned, and is handed to clients as an opaque URL-safe string.
+ */
+public record InventoryCursor(String sortBy, Sort.Direction direction, Object lastValue, Long lastId) {
+
+    public static final Set<String> SORTABLE_FIELDS = Set.of("id", "name", "price", "stockQuantity");
+
+    private static final String NULL_VALUE = "-";
+    private static final String VALUE_PREFIX = "=";
+
+    public InventoryCursor {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cannot sort by '" + sortBy + "', expected one of " + SORTABLE_FIELDS);
+        }
+    }
+
+    /**
+     * Creates the cursor positioned just after the given item.
+     */
+    public static InventoryCursor after(Inventory item, String sortBy, Sort.Direction direction) {
+        Object value = switch (sortBy) {
+            case "name" -> item.getName();
+            case "price" -> item.getPrice();
+            case "stockQuantity" -> item.getStockQuantity();
+            default -> item.getId();
+        };
+        return new InventoryCursor(sortBy, direction, value, item.getId());
+    }
+
+    public String encode() {
+        String value = lastValue == null ? NULL_VALUE : VALUE_PREFIX + lastValue;
+        String raw = sortBy + "\n" + direction.name() + "\n" + lastId + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a token produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static InventoryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+            String sortBy = parts[0];
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            Long lastId = Long.valueOf(parts[2]);
+            Object value = parts[3].equals(NULL_VALUE) ? null : parseValue(sortBy, parts[3].substring(VALUE_PREFIX.length()));
+            return new InventoryCursor(sortBy, direction, value, lastId);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    private static Object parseValue(String sortBy, String value) {
+        return switch (sortBy) {
+            case "name" -> value;
+            case "price" -> new BigDecimal(value);
+            case "stockQuantity" -> Integer.valueOf(value);
+            default -> Long.valueOf(value);
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.inventory.Service;
+
+import com.inventory.event.InventoryChangeEvent;
+import com.inventory.model.CacheStats;
+import com.inventory.model.Inventory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, TTL-aware read-through cache of inventory items by id.
+ * <p>
+ * Entries are evicted in least-recently-used order once {@code inventory.cache.max-size} is reached and
+ * expire {@code inventory.cache.ttl-ms} after being loaded. Every committed change to an item removes
+ * its entry before the writing call returns. A load that overlaps with an invalidation of its item is not
+ * cached, so a reader that fetched the row just before a write commits cannot re-populate the cache with
+ * the old state. Invalidations are counted per stripe of ids, so writes to other items rarely keep a load
+ * from being cached. Callers always receive their own copy of the cached item.
+ */
+@Component
+public class InventoryItemCache {
+
+    private static final int EPOCH_STRIPES = 256;
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<Long, CachedItem> entries;
+
+    // Guarded by this; invalidations of the ids of each stripe
+    private final long[] invalidationEpochs = new long[EPOCH_STRIPES];
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public InventoryItemCache(@Value("${inventory.cache.max-size:10000}") int maxSize,
+                              @Value("${inventory.cache.ttl-ms:60000}") long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedItem> eldest) {
+                if (size() > InventoryItemCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached item, or loads it with the given loader and caches the result.
+     *
+     * @param id     the id of the inventory item
+     * @param loader reads the item from the database on a miss
+     * @return a copy of the item, or empty if it does not exist
+     */
+    public Optional<Inventory> get(Long id, Function<Long, Optional<Inventory>> loader) {
+        long epoch;
+        synchronized (this) {
+            CachedItem cached = entries.get(id);
+            if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+                hits++;
+                return Optional.of(cached.toInventory());
+            }
+            if (cached != null) {
+                entries.remove(id);
+                expirations++;
+            }
+            misses++;
+            epoch = invalidationEpochs[stripeOf(id)];
+        }
+
+        Optional<Inventory> loaded = loader.apply(id);
+        loaded.ifPresent(item -> put(item, epoch));
+        return loaded;
+    }
+
+    public synchronized void invalidate(Long id) {
+        invalidationEpochs[stripeOf(id)]++;
+        if (entries.remove(id) != null) {
+            invalidations++;
+        }
+    }
+
+    public synchronized void clear() {
+        for (int stripe = 0; stripe < EPOCH_STRIPES; stripe++) {
+            invalidationEpochs[stripe]++;
+        }
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        invalidate(event.id());
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(entries.size(), maxSize, hits, misses, evictions, expirations, invalidations);
+    }
+
+    private synchronized void put(Inventory item, long loadEpoch) {
+        // Skip caching if a write to an item of the same stripe committed while the item was being loaded
+        if (loadEpoch == invalidationEpochs[stripeOf(item.getId())] && maxSize > 0) {
+            entries.put(item.getId(), CachedItem.of(item, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    private static int stripeOf(Long id) {
+        return Long.hashCode(id) & (EPOCH_STRIPES - 1);
+    }
+
+    private record CachedItem(Long id, Long version, String name, String description, BigDecimal price, int stockQuantity,
+                              String warehouse, long expiresAt) {
+
+        static CachedItem of(Inventory item, long expiresAt) {
+            return new CachedItem(item.getId(), item.getVersion(), item.getName(), item.getDescription(), item.getPrice(),
+                    item.getStockQuantity(), item.getWarehouse(), expiresAt);
+        }
+
+        Inventory toInventory() {
+            return new Inventory(id, version, name, description, price, stockQuantity, warehouse);
+        }
+    }
+}
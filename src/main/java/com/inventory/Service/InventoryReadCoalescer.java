@@ -0,0 +1,49 @@
+package com.inventory.Service;
+
+import com.inventory.concurrency.SingleFlight;
+import com.inventory.datasource.ReplicaReads;
+import com.inventory.event.InventoryChangeEvent;
+import com.inventory.model.Inventory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Shares one in-flight read between concurrent identical requests for an item, a search or a stock
+ * threshold. A committed change releases the affected in-flight reads, so a request that starts after
+ * a write never joins a read that began before it. Searches may be served by the read replica, so their
+ * results carry whether they were, for every caller sharing them to record.
+ */
+@Component
+public class InventoryReadCoalescer {
+
+    private final SingleFlight<Long, Optional<Inventory>> itemById = new SingleFlight<>();
+    private final SingleFlight<SearchKey, ReplicaReads.Tracked<List<Inventory>>> search = new SingleFlight<>();
+    private final SingleFlight<Integer, List<Inventory>> belowStockThreshold = new SingleFlight<>();
+
+    public SingleFlight<Long, Optional<Inventory>> itemById() {
+        return itemById;
+    }
+
+    public SingleFlight<SearchKey, ReplicaReads.Tracked<List<Inventory>>> search() {
+        return search;
+    }
+
+    public SingleFlight<Integer, List<Inventory>> belowStockThreshold() {
+        return belowStockThreshold;
+    }
+
+    @Order(CatalogRevision.VIEW_LISTENER_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        itemById.forget(event.id());
+        search.forgetAll();
+        belowStockThreshold.forgetAll();
+    }
+
+    public record SearchKey(String keyword, int limit) {
+    }
+}
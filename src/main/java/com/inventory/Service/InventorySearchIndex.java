@@ -0,0 +1,251 @@
+package com.inventory.Service;
+
+import com.inventory.datasource.WarehousePartitions;
+import com.inventory.event.InventoryChangeEvent;
+import com.inventory.repository.InventoryRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over inventory names and descriptions.
+ * <p>
+ * Text is split into lower-cased alphanumeric tokens. A query matches an item when every query term
+ * is a prefix of at least one of the item's tokens, so partial input typed into a search box already
+ * finds results. Matches are ranked by term weight (name tokens count more than description tokens)
+ * scaled by how rare the token is across the catalog, with exact token matches ranked above prefix
+ * matches. Query cost depends on the number of matching tokens and postings, not on the table size.
+ * <p>
+ * The index is loaded from the database once the application is ready and then kept up to date
+ * from committed {@link InventoryChangeEvent}s.
+ */
+@Component
+public class InventorySearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(InventorySearchIndex.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+
+    private final InventoryRepository inventoryRepository;
+    private final EntityManager entityManager;
+    private final WarehousePartitions partitions;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // token -> (item id -> weight of the token in that item)
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // item id -> tokens, used to remove an item's postings when it changes
+    private final Map<Long, Set<String>> tokensByItem = new HashMap<>();
+    private final ItemVersions versions = new ItemVersions();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    @Autowired
+    public InventorySearchIndex(InventoryRepository inventoryRepository, EntityManager entityManager,
+                                WarehousePartitions partitions, PlatformTransactionManager transactionManager) {
+        this.inventoryRepository = inventoryRepository;
+        this.entityManager = entityManager;
+        this.partitions = partitions;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Reloads the whole index from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        withWriteLock(() -> {
+            postings.clear();
+            tokensByItem.clear();
+            versions.clear();
+        });
+
+        partitions.forEachPartition(partition -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (var items = inventoryRepository.streamAll()) {
+                items.forEach(item -> {
+                    // Rows older than a change applied while the rebuild is running are skipped
+                    withWriteLock(() -> {
+                        if (versions.advance(item.getId(), item.getVersion())) {
+                            put(item.getId(), item.getName(), item.getDescription());
+                        }
+                    });
+                    entityManager.detach(item);
+                });
+            }
+        }));
+
+        ready = true;
+        log.info("Search index built with {} items and {} tokens", size(), tokenCount());
+    }
+
+    @Order(CatalogRevision.VIEW_LISTENER_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        if (event.type() == InventoryChangeEvent.Type.STOCK_ADJUSTED) {
+            return;
+        }
+        withWriteLock(() -> {
+            if (event.type() == InventoryChangeEvent.Type.DELETED) {
+                versions.delete(event.id());
+                remove(event.id());
+            } else if (versions.advance(event.id(), event.version())) {
+                put(event.id(), event.name(), event.description());
+            }
+        });
+    }
+
+    /**
+     * Whether the initial load has completed and search results reflect the whole catalog.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finds the items matching every term of the query, best matches first.
+     *
+     * @param query free text, split into terms the same way item text is tokenized
+     * @param limit the maximum number of ids to return
+     * @return ids of the matching items in descending relevance order
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tokensByItem.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int tokenCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Scores every item holding a token that starts with the term. Caller holds the read lock.
+    private Map<Long, Double> scoreTerm(String term) {
+        Map<Long, Double> scores = new HashMap<>();
+        int itemCount = Math.max(tokensByItem.size(), 1);
+
+        Map<String, Map<Long, Integer>> matches = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Map<Long, Integer>> match : matches.entrySet()) {
+            Map<Long, Integer> items = match.getValue();
+            double idf = Math.log(1.0 + (double) itemCount / items.size());
+            double factor = match.getKey().equals(term) ? 1.0 : PREFIX_MATCH_FACTOR;
+            for (Map.Entry<Long, Integer> posting : items.entrySet()) {
+                scores.merge(posting.getKey(), posting.getValue() * idf * factor, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    // Caller holds the write lock
+    private void put(Long id, String name, String description) {
+        remove(id);
+
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(name).forEach(token -> weights.merge(token, NAME_WEIGHT, Integer::sum));
+        tokenize(description).forEach(token -> weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum));
+
+        weights.forEach((token, weight) -> postings.computeIfAbsent(token, t -> new HashMap<>()).put(id, weight));
+        tokensByItem.put(id, weights.keySet());
+    }
+
+    // Caller holds the write lock
+    private void remove(Long id) {
+        Set<String> tokens = tokensByItem.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Map<Long, Integer> items = postings.get(token);
+            items.remove(id);
+            if (items.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,73 +1,729 @@
 package com.inventory.Service;
 
+import com.inventory.datasource.ReplicaReads;
+import com.inventory.datasource.WarehousePartitions;
+import com.inventory.event.InventoryChangeEvent;
+import com.inventory.model.BulkItemResult;
+import com.inventory.model.CacheStats;
+import com.inventory.model.CursorPage;
 import com.inventory.model.Inventory;
+import com.inventory.model.InventoryAggregates;
+import com.inventory.model.StockThresholdCrossing;
 import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.InventoryRepositoryCustom;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class InventoryService {
 
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+
+    public static final int DEFAULT_SEARCH_LIMIT = 100;
+
     private final InventoryRepository inventoryRepository;
+    private final EntityManager entityManager;
+    private final InventorySearchIndex searchIndex;
+    private final InventoryItemCache itemCache;
+    private final StockLevelIndex stockLevelIndex;
+    private final HotStockCounters hotStock;
+    private final InventoryReadCoalescer readCoalescer;
+    private final InventoryAggregateTotals aggregateTotals;
+    private final InventoryChangeFeed changeFeed;
+    private final ReplicaReads replicaReads;
+    private final WarehousePartitions partitions;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int bulkChunkSize;
 
     @Autowired
-    public InventoryService(InventoryRepository inventoryRepository) {
+    public InventoryService(InventoryRepository inventoryRepository, EntityManager entityManager,
+                            InventorySearchIndex searchIndex, InventoryItemCache itemCache,
+                            StockLevelIndex stockLevelIndex, HotStockCounters hotStock,
+                            InventoryReadCoalescer readCoalescer, InventoryAggregateTotals aggregateTotals,
+                            InventoryChangeFeed changeFeed, ReplicaReads replicaReads,
+                            WarehousePartitions partitions, PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${inventory.bulk.chunk-size:500}") int bulkChunkSize) {
+        if (bulkChunkSize < 1) {
+            throw new IllegalArgumentException("inventory.bulk.chunk-size must be at least 1, got " + bulkChunkSize);
+        }
         this.inventoryRepository = inventoryRepository;
+        this.entityManager = entityManager;
+        this.searchIndex = searchIndex;
+        this.itemCache = itemCache;
+        this.stockLevelIndex = stockLevelIndex;
+        this.hotStock = hotStock;
+        this.readCoalescer = readCoalescer;
+        this.aggregateTotals = aggregateTotals;
+        this.changeFeed = changeFeed;
+        this.replicaReads = replicaReads;
+        this.partitions = partitions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+        this.bulkChunkSize = bulkChunkSize;
     }
 
+    /**
+     * Creates an item in the partition of its warehouse.
+     */
     public Inventory createInventory(Inventory inventory) {
-        return inventoryRepository.save(inventory);
+        return partitions.call(partitions.ofWarehouse(inventory.getWarehouse()), () -> inventoryRepository.save(inventory));
     }
 
+    /**
+     * Reads every item, from all partitions. Like the other reporting reads, this may be served by the
+     * read replica.
+     */
     public List<Inventory> getAllInventory() {
-        return inventoryRepository.findAll();
+        return concat(partitions.fanOut(partition -> replicaReads.read(inventoryRepository::findAll)));
+    }
+
+    /**
+     * Reads only the requested attributes of every item, ordered by id. No entities are loaded and
+     * columns that were not requested are not read.
+     *
+     * @param fields the attributes to return; id is always included
+     * @return one map per item from attribute name to value
+     * @throws IllegalArgumentException if a field is not one of {@link InventoryRepositoryCustom#PROJECTABLE_FIELDS}
+     */
+    public List<Map<String, Object>> getAllInventory(List<String> fields) {
+        requireProjectable(fields);
+        // Partitions hold ascending id ranges, so their rows in partition order are in id order
+        return concat(partitions.fanOut(partition ->
+                replicaReads.read(() -> inventoryRepository.findAllProjected(fields, Sort.by("id")))));
+    }
+
+    /**
+     * Walks the whole inventory table with a forward-only cursor, handing each item to the consumer.
+     * Every item is detached from the persistence context once consumed, so memory use stays flat
+     * regardless of catalog size. Partitions are walked one after another.
+     *
+     * @param consumer receives each inventory item in id order
+     */
+    public void streamAllInventory(Consumer<Inventory> consumer) {
+        partitions.forEachPartition(partition -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Inventory> stream = inventoryRepository.streamAll()) {
+                stream.forEach(item -> {
+                    consumer.accept(item);
+                    entityManager.detach(item);
+                });
+            }
+        }));
     }
 
 
+    /**
+     * Looks up an item through the read-through item cache. The cache entry of an item is dropped
+     * whenever a change to it commits, so the result never predates a completed write. For a hot item,
+     * the stock quantity is the live counter value rather than the last flushed one. Concurrent cache
+     * misses for the same id share one database read, in the item's partition.
+     */
     public Optional<Inventory> getInventoryById(Long id) {
-        return inventoryRepository.findById(id);
+        Optional<Inventory> item = itemCache.get(id, key -> readCoalescer.itemById()
+                .execute(key, () -> partitions.call(partitions.ofId(key), () -> inventoryRepository.findById(key)))
+                .map(InventoryService::copyOf));
+        OptionalInt liveStock = hotStock.available(id);
+        if (item.isEmpty() || liveStock.isEmpty()) {
+            return item;
+        }
+        Inventory found = item.get();
+        return Optional.of(new Inventory(found.getId(), found.getVersion(), found.getName(), found.getDescription(),
+                found.getPrice(), liveStock.getAsInt(), found.getWarehouse()));
+    }
+
+    public CacheStats getItemCacheStats() {
+        return itemCache.getStats();
+    }
+
+    /**
+     * Updates an item only if it is still at the version the caller last saw.
+     *
+     * @param id              the id of the inventory item
+     * @param updatedInventory the new field values
+     * @param expectedVersion the version the caller based its changes on, or null to skip the check
+     * @return the updated item with its new version
+     * @throws EntityNotFoundException                 if no item exists with the given id
+     * @throws ObjectOptimisticLockingFailureException if the item has a different version, or another
+     *                                                 update commits first
+     */
+    public Inventory updateInventory(Long id, Inventory updatedInventory, Long expectedVersion) {
+        return hotStock.withStableMode(() -> partitions.call(partitions.ofId(id), () -> transactionTemplate.execute(status -> {
+            Inventory existingInventory = inventoryRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Inventory not found with ID: " + id));
+            if (expectedVersion != null && !expectedVersion.equals(existingInventory.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Inventory.class, id);
+            }
+            applyChanges(existingInventory, updatedInventory);
+            // Flush now so that a concurrent update surfaces here rather than at commit
+            return inventoryRepository.saveAndFlush(existingInventory);
+        })));
     }
 
     public Inventory updateInventory(Long id, Inventory updatedInventory) {
+        return hotStock.withStableMode(() -> partitions.call(partitions.ofId(id), () -> {
+            Optional<Inventory> existingInventoryOpt = inventoryRepository.findById(id);
+
+            if (existingInventoryOpt.isPresent()) {
+                Inventory existingInventory = existingInventoryOpt.get();
+                applyChanges(existingInventory, updatedInventory);
+                return inventoryRepository.save(existingInventory);
+            } else {
+                throw new EntityNotFoundException("Inventory not found with ID: " + id);
+            }
+        }));
+    }
+
+    /**
+     * Adds a delta to an item's stock in a single conditional UPDATE, so concurrent adjustments never
+     * overwrite each other and stock never goes negative. Hot items are adjusted in their in-memory
+     * counters instead and reach the database with the next flush.
+     *
+     * @param id    the id of the inventory item
+     * @param delta the number of units to add, negative to remove units
+     * @return the stock quantity after the adjustment
+     * @throws EntityNotFoundException     if no item exists with the given id
+     * @throws InsufficientStockException if the adjustment would make the stock negative
+     */
+    public int adjustStock(Long id, int delta) {
+        return hotStock.adjust(id, delta, () -> partitions.call(partitions.ofId(id), () -> transactionTemplate.execute(status -> {
+            Optional<InventoryRepository.StockChange> change = inventoryRepository.adjustStock(id, delta);
+            if (change.isEmpty()) {
+                // Only the failure path pays for telling the two causes apart
+                if (!inventoryRepository.existsById(id)) {
+                    throw new EntityNotFoundException("Inventory not found with ID: " + id);
+                }
+                throw new InsufficientStockException(id, delta);
+            }
+
+            // The bulk UPDATE bypasses the entity listener, so announce the change explicitly
+            int stockQuantity = change.get().getStockQuantity();
+            eventPublisher.publishEvent(InventoryChangeEvent.stockAdjusted(id, stockQuantity, change.get().getVersion()));
+            return stockQuantity;
+        })));
+    }
+
+    /**
+     * Moves an item's stock into striped in-memory counters for contention-free adjustments.
+     *
+     * @throws EntityNotFoundException if no item exists with the given id
+     * @throws IllegalStateException   if hot-stock mode is disabled
+     */
+    public void promoteToHotStock(Long id) {
+        hotStock.promote(id);
+    }
+
+    /**
+     * Flushes a hot item's pending stock changes and returns it to database-backed adjustments.
+     */
+    public void demoteFromHotStock(Long id) {
+        hotStock.demote(id);
+    }
+
+    /**
+     * Whether the item's stock is held in hot counters, where it changes without the item's version.
+     */
+    public boolean isHotStock(Long id) {
+        return hotStock.isHot(id);
+    }
+
+    /**
+     * Creates many items at once. Items are written in chunks of {@code inventory.bulk.chunk-size},
+     * each chunk in its own transaction with JDBC-batched inserts. A failing chunk is rolled back and
+     * reported as failed without affecting the other chunks. A chunk holding items of several partitions
+     * is written in one transaction per partition.
+     *
+     * @param items the items to create; items that already carry an id are rejected
+     * @return one result per submitted item, in submission order
+     */
+    public List<BulkItemResult> createInventoryInBulk(List<Inventory> items) {
+        return writeInChunks(items, item -> partitions.ofWarehouse(item.getWarehouse()), chunk -> {
+            List<BulkItemResult> results = new ArrayList<>(chunk.size());
+            for (IndexedItem entry : chunk) {
+                if (entry.item().getId() != null) {
+                    results.add(BulkItemResult.failure(entry.index(), entry.item().getId(),
+                            BulkItemResult.Status.REJECTED, "New items must not carry an id"));
+                    continue;
+                }
+                entityManager.persist(entry.item());
+                results.add(BulkItemResult.success(entry.index(), entry.item().getId(), BulkItemResult.Status.CREATED));
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Updates many existing items at once, identified by their id. Each chunk loads its items with a
+     * single query and writes them back with JDBC-batched updates in one transaction.
+     *
+     * @param items the new state of the items; items without an id are rejected
+     * @return one result per submitted item, in submission order
+     */
+    public List<BulkItemResult> updateInventoryInBulk(List<Inventory> items) {
+        return hotStock.withStableMode(() -> writeInChunks(items,
+                item -> item.getId() == null ? 0 : partitions.ofId(item.getId()), chunk -> {
+            List<Long> ids = chunk.stream()
+                    .map(entry -> entry.item().getId())
+                    .filter(Objects::nonNull)
+                    .toList();
+            Map<Long, Inventory> existingById = inventoryRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Inventory::getId, Function.identity()));
 
-        Optional<Inventory> existingInventoryOpt = inventoryRepository.findById(id);
+            List<BulkItemResult> results = new ArrayList<>(chunk.size());
+            for (IndexedItem entry : chunk) {
+                Long id = entry.item().getId();
+                if (id == null) {
+                    results.add(BulkItemResult.failure(entry.index(), null,
+                            BulkItemResult.Status.REJECTED, "Items to update must carry an id"));
+                } else if (!existingById.containsKey(id)) {
+                    results.add(BulkItemResult.failure(entry.index(), id,
+                            BulkItemResult.Status.NOT_FOUND, "Inventory not found with ID: " + id));
+                } else {
+                    applyChanges(existingById.get(id), entry.item());
+                    results.add(BulkItemResult.success(entry.index(), id, BulkItemResult.Status.UPDATED));
+                }
+            }
+            return results;
+        }));
+    }
+
+    /**
+     * Creates or updates many items at once, matching them to existing items by name within the same
+     * warehouse. A submitted item whose name is already taken in its warehouse updates that item (the
+     * oldest one, if several share the name), all others are created; a name repeated within the
+     * submission updates the item its first occurrence wrote. Items are written in chunks like
+     * {@link #createInventoryInBulk(List)}.
+     *
+     * @param items the items to write, without ids
+     * @return one result per submitted item, in submission order
+     */
+    public List<BulkItemResult> upsertInventoryByName(List<Inventory> items) {
+        return hotStock.withStableMode(() -> writeInChunks(items, item -> partitions.ofWarehouse(item.getWarehouse()), chunk -> {
+            Set<String> names = chunk.stream()
+                    .map(entry -> entry.item().getName())
+                    .collect(Collectors.toSet());
+            Map<NameInWarehouse, Inventory> existingByName = new HashMap<>();
+            for (Inventory existing : inventoryRepository.findByNameInOrderByIdAsc(names)) {
+                existingByName.putIfAbsent(NameInWarehouse.of(existing), existing);
+            }
+
+            List<BulkItemResult> results = new ArrayList<>(chunk.size());
+            for (IndexedItem entry : chunk) {
+                Inventory existing = existingByName.get(NameInWarehouse.of(entry.item()));
+                if (existing == null) {
+                    entityManager.persist(entry.item());
+                    existingByName.put(NameInWarehouse.of(entry.item()), entry.item());
+                    results.add(BulkItemResult.success(entry.index(), entry.item().getId(), BulkItemResult.Status.CREATED));
+                } else {
+                    applyChanges(existing, entry.item());
+                    results.add(BulkItemResult.success(entry.index(), existing.getId(), BulkItemResult.Status.UPDATED));
+                }
+            }
+            return results;
+        }));
+    }
 
-        if (existingInventoryOpt.isPresent()) {
-            Inventory existingInventory = existingInventoryOpt.get();
-            existingInventory.setName(updatedInventory.getName());
-            existingInventory.setDescription(updatedInventory.getDescription());
-            existingInventory.setPrice(updatedInventory.getPrice());
+    private List<BulkItemResult> writeInChunks(List<Inventory> items, ToIntFunction<Inventory> partitionOf,
+                                               Function<List<IndexedItem>, List<BulkItemResult>> writer) {
+        List<BulkItemResult> results = new ArrayList<>(items.size());
+        for (int start = 0; start < items.size(); start += bulkChunkSize) {
+            List<IndexedItem> chunk = new ArrayList<>();
+            for (int i = start; i < Math.min(start + bulkChunkSize, items.size()); i++) {
+                chunk.add(new IndexedItem(i, items.get(i)));
+            }
+
+            partitions.groupByPartition(chunk, entry -> partitionOf.applyAsInt(entry.item())).forEach((partition, part) -> {
+                try {
+                    results.addAll(partitions.call(partition, () -> transactionTemplate.execute(status -> writer.apply(part))));
+                } catch (RuntimeException e) {
+                    log.warn("Bulk write of items {} to {} failed", part.get(0).index(), part.get(part.size() - 1).index(), e);
+                    for (IndexedItem entry : part) {
+                        results.add(BulkItemResult.failure(entry.index(), null, BulkItemResult.Status.FAILED, e.getMessage()));
+                    }
+                }
+            });
+        }
+        // The partitions of a chunk are written one after another
+        results.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        return results;
+    }
+
+    private void applyChanges(Inventory existingInventory, Inventory updatedInventory) {
+        existingInventory.setName(updatedInventory.getName());
+        existingInventory.setDescription(updatedInventory.getDescription());
+        existingInventory.setPrice(updatedInventory.getPrice());
+        // The stock of a hot item is owned by its counters and only changes through adjustments
+        if (!hotStock.isHot(existingInventory.getId())) {
             existingInventory.setStockQuantity(updatedInventory.getStockQuantity());
-            return inventoryRepository.save(existingInventory);
-        } else {
-            throw new EntityNotFoundException("Inventory not found with ID: " + id);
         }
     }
 
-    public void deleteInventoryById(Long id) {
-        if (inventoryRepository.existsById(id)) {
-            inventoryRepository.deleteById(id);
-        } else {
-            throw new IllegalArgumentException("Inventory with ID " + id + " does not exist.");
+    private record IndexedItem(int index, Inventory item) {
+    }
+
+    private record NameInWarehouse(String name, String warehouse) {
+
+        static NameInWarehouse of(Inventory item) {
+            return new NameInWarehouse(item.getName(), item.getWarehouse());
         }
     }
 
+    public void deleteInventoryById(Long id) {
+        hotStock.demote(id);
+        partitions.run(partitions.ofId(id), () -> {
+            if (inventoryRepository.existsById(id)) {
+                inventoryRepository.deleteById(id);
+            } else {
+                throw new IllegalArgumentException("Inventory with ID " + id + " does not exist.");
+            }
+        });
+    }
+
+    /**
+     * Reads one page of the catalog. With several partitions, each partition reads its first
+     * offset + size items in the requested order and the page is cut from their merge, so deep pages
+     * cost more than with a single database; {@link #getInventoryAfterCursor} avoids that.
+     */
     public Page<Inventory> getPagedInventory(PageRequest pageRequest) {
-        return inventoryRepository.findAll(pageRequest);
+        return fanOutPage(pageRequest, InventoryService::sortValue,
+                request -> replicaReads.read(() -> inventoryRepository.findAll(request)));
+    }
+
+    /**
+     * Reads one page of the requested attributes, without loading entities.
+     *
+     * @throws IllegalArgumentException if a field or the sort attribute is not projectable
+     */
+    public Page<Map<String, Object>> getPagedInventory(PageRequest pageRequest, List<String> fields) {
+        List<String> sortFields = requireProjectable(pageRequest.getSort().stream().map(Sort.Order::getProperty).toList());
+        requireProjectable(fields);
+        // Merging the rows of several partitions needs their sort attributes, even if not requested
+        List<String> selected = partitions.count() == 1 ? fields : withFields(fields, sortFields);
+        Page<Map<String, Object>> page = fanOutPage(pageRequest, Map::get,
+                request -> replicaReads.read(() -> inventoryRepository.findAllProjected(selected, request)));
+        return selected.size() == fields.size() ? page : page.map(row -> retainFields(row, fields));
+    }
+
+    /**
+     * Returns the next slice of a keyset-paginated listing. Each call seeks directly to the position
+     * encoded in the cursor, so fetching a deep slice costs the same as fetching the first one.
+     *
+     * @param cursor       the continuation token of the previous slice, or null to start from the beginning;
+     *                     when present, its sort order takes precedence over sortBy and direction
+     * @param sortBy       the attribute to sort by, one of {@link InventoryCursor#SORTABLE_FIELDS}
+     * @param direction    the sort direction
+     * @param size         the maximum number of items in the slice
+     * @param includeTotal whether to run the additional count query for the total number of items
+     * @return the slice with the continuation token for the next one
+     * @throws IllegalArgumentException if the cursor is malformed or the sort or size is invalid
+     */
+    public CursorPage<Inventory> getInventoryAfterCursor(String cursor, String sortBy, Sort.Direction direction,
+                                                         int size, boolean includeTotal) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1, got " + size);
+        }
+
+        InventoryCursor position = cursor != null
+                ? InventoryCursor.decode(cursor)
+                : new InventoryCursor(sortBy, direction, null, null);
+
+        // Fetch one extra row to find out whether another slice follows without counting. Every partition
+        // seeks to the position, and the slice is the head of their merge.
+        List<PartitionSlice> slices = partitions.fanOut(partition -> readOnlyTransaction.execute(status -> new PartitionSlice(
+                inventoryRepository.findPageAfter(position.sortBy(), position.direction(), position.lastValue(),
+                        position.lastId(), size + 1),
+                includeTotal ? inventoryRepository.count() : 0)));
+        List<Inventory> items = merge(slices.stream().map(PartitionSlice::items).toList(),
+                orderOf(Sort.by(position.direction(), position.sortBy(), "id"), InventoryService::sortValue));
+
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            nextCursor = InventoryCursor.after(items.get(size - 1), position.sortBy(), position.direction()).encode();
+        }
+
+        Long total = includeTotal ? slices.stream().mapToLong(PartitionSlice::total).sum() : null;
+        return new CursorPage<>(List.copyOf(items), nextCursor, total);
+    }
+
+    private record PartitionSlice(List<Inventory> items, long total) {
     }
 
     public List<Inventory> searchInventory(String keyword) {
-        return inventoryRepository.searchInventory(keyword, keyword);
+        return searchInventory(keyword, DEFAULT_SEARCH_LIMIT);
+    }
+
+    /**
+     * Searches names and descriptions through the in-memory search index. Every term of the keyword
+     * must match, and results are ordered by relevance. Until the index has finished loading at startup,
+     * this falls back to a substring query against the database. Concurrent identical searches share
+     * one execution, except for a client inside its read-your-writes window, which reads on its own. The
+     * index covers all partitions, and the matches are read from their partitions in parallel. They are
+     * read from the read replica if one is configured, so a new item can be missing from the results until
+     * it has been replicated.
+     *
+     * @param keyword the search text
+     * @param limit   the maximum number of results
+     * @return the matching items, best matches first
+     */
+    public List<Inventory> searchInventory(String keyword, int limit) {
+        if (replicaReads.isPinnedToPrimary()) {
+            return copiesOf(search(keyword, limit));
+        }
+        // Whoever ran the shared read, every caller records whether it came from the replica
+        return copiesOf(ReplicaReads.replay(readCoalescer.search().execute(new InventoryReadCoalescer.SearchKey(keyword, limit),
+                () -> ReplicaReads.tracked(() -> search(keyword, limit)))));
     }
 
+    private List<Inventory> search(String keyword, int limit) {
+        if (!searchIndex.isReady()) {
+            return limit(concat(partitions.fanOut(partition -> replicaReads.read(() ->
+                    inventoryRepository.searchInventory(keyword, keyword).stream()
+                            .limit(limit)
+                            .toList()))), limit);
+        }
+
+        return findAllInOrder(searchIndex.search(keyword, limit), Inventory::getId,
+                ids -> replicaReads.read(() -> inventoryRepository.findAllById(ids)));
+    }
+
+    /**
+     * Like {@link #searchInventory(String, int)}, but reads only the requested attributes of the matches.
+     *
+     * @throws IllegalArgumentException if a field is not projectable
+     */
+    public List<Map<String, Object>> searchInventory(String keyword, int limit, List<String> fields) {
+        requireProjectable(fields);
+        if (!searchIndex.isReady()) {
+            return limit(concat(partitions.fanOut(partition ->
+                    replicaReads.read(() -> inventoryRepository.searchProjected(keyword, fields, limit)))), limit);
+        }
+        return findAllInOrder(searchIndex.search(keyword, limit), InventoryService::idOf,
+                ids -> replicaReads.read(() -> inventoryRepository.findAllByIdProjected(ids, fields)));
+    }
+
+    /**
+     * Finds the items whose stock is below the threshold, lowest stock first, using the in-memory
+     * stock level index. Until the index has finished loading at startup, this queries the database.
+     * Concurrent queries for the same threshold share one execution. The index covers all partitions,
+     * and the items are read from their partitions in parallel.
+     */
     public List<Inventory> findInventoryBelowStockThreshold(int threshold) {
-        return inventoryRepository.findByStockQuantityLessThan(threshold);
+        return copiesOf(readCoalescer.belowStockThreshold().execute(threshold, () -> {
+            if (!stockLevelIndex.isReady()) {
+                return merge(partitions.fanOut(partition -> inventoryRepository.findByStockQuantityLessThan(threshold)),
+                        orderOf(Sort.by("stockQuantity"), InventoryService::sortValue));
+            }
+            return findAllInOrder(stockLevelIndex.findIdsBelow(threshold), Inventory::getId,
+                    inventoryRepository::findAllById);
+        }));
+    }
+
+    /**
+     * Like {@link #findInventoryBelowStockThreshold(int)}, but reads only the requested attributes.
+     *
+     * @throws IllegalArgumentException if a field is not projectable
+     */
+    public List<Map<String, Object>> findInventoryBelowStockThreshold(int threshold, List<String> fields) {
+        requireProjectable(fields);
+        if (!stockLevelIndex.isReady()) {
+            List<String> selected = partitions.count() == 1 ? fields : withFields(fields, List.of("stockQuantity"));
+            List<Map<String, Object>> rows = merge(partitions.fanOut(partition ->
+                            inventoryRepository.findByStockQuantityLessThanProjected(threshold, selected)),
+                    orderOf(Sort.by("stockQuantity"), Map::get));
+            return selected.size() == fields.size() ? rows : rows.stream().map(row -> retainFields(row, fields)).toList();
+        }
+        return findAllInOrder(stockLevelIndex.findIdsBelow(threshold), InventoryService::idOf,
+                ids -> inventoryRepository.findAllByIdProjected(ids, fields));
+    }
+
+    /**
+     * Returns catalog-wide totals: item count, out-of-stock count, units and stock value. The totals are
+     * kept up to date from committed changes, so this is O(1); until they have been loaded at startup,
+     * they are computed with an aggregate query in every partition.
+     */
+    public InventoryAggregates getInventoryAggregates() {
+        if (aggregateTotals.isReady()) {
+            return aggregateTotals.snapshot();
+        }
+        InventoryAggregates totals = new InventoryAggregates(0, 0, 0, BigDecimal.ZERO);
+        for (Object[] row : partitions.fanOut(partition -> inventoryRepository.aggregateTotals().get(0))) {
+            totals = new InventoryAggregates(totals.itemCount() + ((Number) row[0]).longValue(),
+                    totals.outOfStockCount() + (row[1] == null ? 0 : ((Number) row[1]).longValue()),
+                    totals.totalUnits() + (row[2] == null ? 0 : ((Number) row[2]).longValue()),
+                    row[3] == null ? totals.totalValue() : totals.totalValue().add((BigDecimal) row[3]));
+        }
+        return totals;
+    }
+
+    /**
+     * Subscribes to items crossing the given stock threshold in either direction.
+     *
+     * @return an action that cancels the subscription
+     */
+    public Runnable subscribeToStockThreshold(int threshold, Consumer<StockThresholdCrossing> listener) {
+        return stockLevelIndex.subscribe(threshold, listener);
+    }
+
+    /**
+     * Subscribes to every committed create, update, delete and stock change, in commit order.
+     *
+     * @param lastEventId the id of the last change already seen, or null to start with the next change
+     * @param subscriber  receives the changes, or a resync notice if changes after lastEventId are no
+     *                    longer retained
+     * @return an action that cancels the subscription
+     * @throws IllegalStateException if too many subscribers are connected
+     */
+    public Runnable subscribeToChanges(String lastEventId, InventoryChangeFeed.Subscriber subscriber) {
+        return changeFeed.subscribe(lastEventId, subscriber);
+    }
+
+    private static List<String> requireProjectable(List<String> fields) {
+        for (String field : fields) {
+            if (!InventoryRepositoryCustom.PROJECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field '" + field + "', expected one of "
+                        + InventoryRepositoryCustom.PROJECTABLE_FIELDS);
+            }
+        }
+        return fields;
+    }
+
+    // Coalesced results are handed to several callers, so each caller gets its own instances
+    private static Inventory copyOf(Inventory item) {
+        return new Inventory(item.getId(), item.getVersion(), item.getName(), item.getDescription(),
+                item.getPrice(), item.getStockQuantity(), item.getWarehouse());
+    }
+
+    private static List<Inventory> copiesOf(List<Inventory> items) {
+        return items.stream().map(InventoryService::copyOf).toList();
+    }
+
+    // Fetches items or rows by primary key, the ids of each partition from that partition and the
+    // partitions in parallel, and returns them in the order of the given ids, skipping deleted ones
+    private <T> List<T> findAllInOrder(List<Long> ids, Function<T, Long> idOf, Function<List<Long>, List<T>> fetch) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<Long>> idsByPartition = partitions.groupByPartition(ids, partitions::ofId);
+        Map<Long, T> byId = concat(partitions.fanOut(partition -> {
+            List<Long> partitionIds = idsByPartition.get(partition);
+            return partitionIds == null ? List.<T>of() : fetch.apply(partitionIds);
+        })).stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Projected rows always carry their id
+    private static Long idOf(Map<String, Object> row) {
+        return (Long) row.get("id");
+    }
+
+    // Pages through all partitions as if they were one table
+    private <T> Page<T> fanOutPage(PageRequest pageRequest, BiFunction<T, String, Object> property,
+                                   Function<PageRequest, Page<T>> query) {
+        if (partitions.count() == 1) {
+            return query.apply(pageRequest);
+        }
+        // Each partition's head must end where the merged order would cut it, so ties are broken by id there too
+        Sort sort = pageRequest.getSort().getOrderFor("id") != null
+                ? pageRequest.getSort() : pageRequest.getSort().and(Sort.by("id"));
+        PageRequest head = PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE,
+                pageRequest.getOffset() + pageRequest.getPageSize()), sort);
+        List<Page<T>> heads = partitions.fanOut(partition -> query.apply(head));
+        List<T> content = heads.stream()
+                .flatMap(Page::stream)
+                .sorted(orderOf(pageRequest.getSort(), property))
+                .skip(pageRequest.getOffset())
+                .limit(pageRequest.getPageSize())
+                .toList();
+        return new PageImpl<>(content, pageRequest, heads.stream().mapToLong(Page::getTotalElements).sum());
+    }
+
+    private static <T> List<T> concat(List<List<T>> results) {
+        return results.size() == 1 ? results.get(0) : results.stream().flatMap(List::stream).toList();
+    }
+
+    // Merges the results of the partitions, each already in the given order
+    private static <T> List<T> merge(List<List<T>> results, Comparator<T> order) {
+        return results.size() == 1 ? results.get(0) : results.stream().flatMap(List::stream).sorted(order).toList();
+    }
+
+    private static <T> List<T> limit(List<T> items, int limit) {
+        return items.size() > limit ? items.subList(0, limit) : items;
+    }
+
+    // The order of a Sort in memory, with nulls lowest as in H2 and the id as the final tie-breaker
+    @SuppressWarnings("unchecked")
+    private static <T> Comparator<T> orderOf(Sort sort, BiFunction<T, String, Object> property) {
+        Comparator<T> order = (a, b) -> 0;
+        for (Sort.Order sortOrder : sort.and(Sort.by("id"))) {
+            Comparator<T> byProperty = Comparator.comparing(
+                    item -> (Comparable<Object>) property.apply(item, sortOrder.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            order = order.thenComparing(sortOrder.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return order;
+    }
+
+    private static Object sortValue(Inventory item, String property) {
+        return switch (property) {
+            case "id" -> item.getId();
+            case "name" -> item.getName();
+            case "description" -> item.getDescription();
+            case "price" -> item.getPrice();
+            case "stockQuantity" -> item.getStockQuantity();
+            case "warehouse" -> item.getWarehouse();
+            case "version" -> item.getVersion();
+            default -> throw new IllegalArgumentException("Cannot sort by '" + property + "'");
+        };
+    }
+
+    private static List<String> withFields(List<String> fields, List<String> extra) {
+        Set<String> selected = new LinkedHashSet<>(fields);
+        selected.addAll(extra);
+        return List.copyOf(selected);
+    }
+
+    // Drops the attributes that were only read to merge rows
+    private static Map<String, Object> retainFields(Map<String, Object> row, List<String> fields) {
+        row.keySet().removeIf(field -> !field.equals("id") && !fields.contains(field));
+        return row;
     }
 
 }
@@ -0,0 +1,72 @@
+package com.inventory.Service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The row version each item of an in-memory index was last loaded at, used to drop
+ * {@link com.inventory.event.InventoryChangeEvent}s that arrive after a newer state was applied.
+ * <p>
+ * Deleted items are remembered for a while so that a late update cannot bring them back. Ids are never
+ * reused, so forgetting a tombstone once no transaction from before the delete can still be delivering
+ * its events is safe. Not thread-safe; callers synchronize, typically under their index's write lock.
+ */
+final class ItemVersions {
+
+    private static final long TOMBSTONE_RETENTION_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<Long, Long> versions = new HashMap<>();
+    // id -> System.nanoTime() of the delete, oldest first
+    private final LinkedHashMap<Long, Long> deletedAt = new LinkedHashMap<>();
+
+    /**
+     * Records the version if it is not older than the one already applied.
+     *
+     * @param version the row version, or null if unknown, which is always applied
+     * @return whether the state at this version should be applied
+     */
+    boolean advance(Long id, Long version) {
+        if (!isCurrent(id, version)) {
+            return false;
+        }
+        if (version != null) {
+            versions.put(id, version);
+        }
+        return true;
+    }
+
+    /**
+     * Whether a state at this version would be applied, without recording it.
+     */
+    boolean isCurrent(Long id, Long version) {
+        if (deletedAt.containsKey(id)) {
+            return false;
+        }
+        Long applied = versions.get(id);
+        return version == null || applied == null || version >= applied;
+    }
+
+    /**
+     * Records that the item was deleted; every later state of it is stale.
+     */
+    void delete(Long id) {
+        long now = System.nanoTime();
+        versions.remove(id);
+        deletedAt.put(id, now);
+        Iterator<Long> oldest = deletedAt.values().iterator();
+        while (oldest.hasNext() && now - oldest.next() > TOMBSTONE_RETENTION_NANOS) {
+            oldest.remove();
+        }
+    }
+
+    /**
+     * Forgets the applied versions ahead of a reload. Tombstones are kept, as the reload cannot tell a
+     * deleted item from a stale event about it.
+     */
+    void clear() {
+        versions.clear();
+    }
+}
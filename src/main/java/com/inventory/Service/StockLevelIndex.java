@@ -0,0 +1,235 @@
+package com.inventory.Service;
+
+import com.inventory.datasource.WarehousePartitions;
+import com.inventory.event.InventoryChangeEvent;
+import com.inventory.model.StockThresholdCrossing;
+import com.inventory.repository.InventoryRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of inventory items ordered by stock quantity.
+ * <p>
+ * "Below N" queries walk the head of a sorted set, costing O(log n + k) for k results instead of a
+ * table scan. The index is loaded once the application is ready and kept up to date from committed
+ * {@link InventoryChangeEvent}s. Subscribers can register a threshold and are notified whenever an
+ * item crosses it; notifications are delivered on a separate thread so writers never wait for them.
+ */
+@Component
+public class StockLevelIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLevelIndex.class);
+
+    private static final int NOTIFICATION_QUEUE_CAPACITY = 10_000;
+
+    private static final Comparator<StockKey> ORDER =
+            Comparator.comparingInt(StockKey::stockQuantity).thenComparingLong(StockKey::id);
+
+    private final InventoryRepository inventoryRepository;
+    private final EntityManager entityManager;
+    private final WarehousePartitions partitions;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final TreeSet<StockKey> byStock = new TreeSet<>(ORDER);
+    private final Map<Long, Integer> stockById = new HashMap<>();
+    private final ItemVersions versions = new ItemVersions();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // threshold -> subscribers watching it
+    private final NavigableMap<Integer, List<Consumer<StockThresholdCrossing>>> subscriptions = new ConcurrentSkipListMap<>();
+    private final ThreadPoolExecutor notifier = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(NOTIFICATION_QUEUE_CAPACITY),
+            (task, executor) -> log.warn("Dropping stock threshold notification, subscribers are falling behind"));
+
+    private volatile boolean ready;
+
+    @Autowired
+    public StockLevelIndex(InventoryRepository inventoryRepository, EntityManager entityManager,
+                           WarehousePartitions partitions, PlatformTransactionManager transactionManager) {
+        this.inventoryRepository = inventoryRepository;
+        this.entityManager = entityManager;
+        this.partitions = partitions;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Reloads the whole index from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        withWriteLock(() -> {
+            byStock.clear();
+            stockById.clear();
+            versions.clear();
+        });
+
+        partitions.forEachPartition(partition -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (var items = inventoryRepository.streamAll()) {
+                items.forEach(item -> {
+                    // Rows older than a change applied while the rebuild is running are skipped
+                    withWriteLock(() -> {
+                        if (versions.advance(item.getId(), item.getVersion())) {
+                            put(item.getId(), item.getStockQuantity());
+                        }
+                    });
+                    entityManager.detach(item);
+                });
+            }
+        }));
+
+        ready = true;
+        log.info("Stock level index built with {} items", stockById.size());
+    }
+
+    @Order(CatalogRevision.VIEW_LISTENER_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        Integer[] previous = new Integer[1];
+        boolean[] applied = new boolean[1];
+        withWriteLock(() -> {
+            if (event.type() == InventoryChangeEvent.Type.DELETED) {
+                versions.delete(event.id());
+                previous[0] = remove(event.id());
+            } else if (versions.advance(event.id(), event.version())) {
+                previous[0] = put(event.id(), event.stockQuantity());
+                applied[0] = true;
+            }
+        });
+
+        // A stale event changes nothing, so it crosses no threshold either
+        if (applied[0]) {
+            notifyCrossings(event.id(), previous[0], event.stockQuantity());
+        }
+    }
+
+    /**
+     * Whether the initial load has completed and the index reflects the whole catalog.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the ids of all items whose stock is strictly below the threshold, lowest stock first.
+     */
+    public List<Long> findIdsBelow(int threshold) {
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (StockKey key : byStock.headSet(new StockKey(threshold, Long.MIN_VALUE), false)) {
+                ids.add(key.id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Registers a listener that is told whenever an item's stock drops below the threshold or
+     * recovers to it or above.
+     *
+     * @return an action that cancels the subscription
+     */
+    public Runnable subscribe(int threshold, Consumer<StockThresholdCrossing> listener) {
+        subscriptions.computeIfAbsent(threshold, t -> new CopyOnWriteArrayList<>()).add(listener);
+        return () -> subscriptions.computeIfPresent(threshold, (t, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdownNow();
+    }
+
+    private void notifyCrossings(Long id, Integer previous, int current) {
+        if (subscriptions.isEmpty() || (previous != null && previous == current)) {
+            return;
+        }
+
+        // Only thresholds between the old and new quantity can have been crossed
+        int low = previous == null ? current : Math.min(previous, current);
+        int high = previous == null ? Integer.MAX_VALUE : Math.max(previous, current);
+        for (Map.Entry<Integer, List<Consumer<StockThresholdCrossing>>> entry
+                : subscriptions.subMap(low, false, high, true).entrySet()) {
+            int threshold = entry.getKey();
+            boolean wasBelow = previous != null && previous < threshold;
+            boolean isBelow = current < threshold;
+            if (wasBelow == isBelow || (previous == null && !isBelow)) {
+                continue;
+            }
+
+            StockThresholdCrossing crossing = new StockThresholdCrossing(id, threshold, previous, current,
+                    isBelow ? StockThresholdCrossing.Direction.BELOW : StockThresholdCrossing.Direction.RECOVERED);
+            for (Consumer<StockThresholdCrossing> listener : entry.getValue()) {
+                notifier.execute(() -> {
+                    try {
+                        listener.accept(crossing);
+                    } catch (RuntimeException e) {
+                        log.warn("Stock threshold subscriber failed", e);
+                    }
+                });
+            }
+        }
+    }
+
+    // Caller holds the write lock. Returns the previous quantity, or null if the item was not indexed.
+    private Integer put(Long id, int stockQuantity) {
+        Integer previous = stockById.put(id, stockQuantity);
+        if (previous != null) {
+            byStock.remove(new StockKey(previous, id));
+        }
+        byStock.add(new StockKey(stockQuantity, id));
+        return previous;
+    }
+
+    // Caller holds the write lock
+    private Integer remove(Long id) {
+        Integer previous = stockById.remove(id);
+        if (previous != null) {
+            byStock.remove(new StockKey(previous, id));
+        }
+        return previous;
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record StockKey(int stockQuantity, long id) {
+    }
+}
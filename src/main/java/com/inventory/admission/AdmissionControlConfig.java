@@ -0,0 +1,57 @@
+package com.inventory.admission;
+
+import com.inventory.security.ClientKeys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Opt-in admission control for the API: per-client rate limits ({@code inventory.rate-limit.enabled=true})
+ * and a global concurrency limit ({@code inventory.concurrency-limit.enabled=true}). Rate limiting runs
+ * first, so requests that are over their client's budget never take a concurrency slot.
+ */
+@Configuration
+public class AdmissionControlConfig {
+
+    private static final String[] URL_PATTERNS = {"/api/*", "/auth/*"};
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.rate-limit.enabled", havingValue = "true")
+    public RateLimitFilter rateLimitFilter(ClientKeys clientKeys,
+                                           @Value("${inventory.rate-limit.capacity:100}") int capacity,
+                                           @Value("${inventory.rate-limit.refill-per-second:20}") double refillPerSecond,
+                                           @Value("${inventory.rate-limit.costs:}") List<String> costs,
+                                           @Value("${inventory.rate-limit.max-clients:100000}") int maxClients) {
+        return new RateLimitFilter(clientKeys, capacity, refillPerSecond, costs, maxClients);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.rate-limit.enabled", havingValue = "true")
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns(URL_PATTERNS);
+        registration.setOrder(1);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.concurrency-limit.enabled", havingValue = "true")
+    public ConcurrencyLimitFilter concurrencyLimitFilter(
+            @Value("${inventory.concurrency-limit.max-requests:20}") int maxConcurrent,
+            @Value("${inventory.concurrency-limit.queue-timeout-ms:100}") long queueTimeoutMillis) {
+        return new ConcurrencyLimitFilter(maxConcurrent, queueTimeoutMillis);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.concurrency-limit.enabled", havingValue = "true")
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(ConcurrencyLimitFilter filter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns(URL_PATTERNS);
+        registration.setOrder(2);
+        return registration;
+    }
+}
@@ -0,0 +1,72 @@
+package com.inventory.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of requests being handled at once, across all clients.
+ * <p>
+ * Without a cap, a surge queues requests on the connection pool, where every request waits up to the
+ * pool's connection timeout and latency rises for everyone. With it, requests beyond the limit wait at
+ * most {@code queueTimeoutMillis} for a slot and are then shed with 503 and Retry-After, while the
+ * admitted ones keep their normal latency. The limit should sit a little above the connection pool size.
+ * Streaming and server-sent event responses hold their slot only until the handler returns, not while
+ * the response is written.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore slots;
+    private final int maxConcurrent;
+    private final long queueTimeoutMillis;
+    private final LongAdder shed = new LongAdder();
+
+    public ConcurrencyLimitFilter(int maxConcurrent, long queueTimeoutMillis) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be at least 1");
+        }
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = slots.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            shed.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            slots.release();
+        }
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    public long getShed() {
+        return shed.sum();
+    }
+}
@@ -0,0 +1,142 @@
+package com.inventory.admission;
+
+import com.inventory.security.ClientKeys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate limits every client with a {@link TokenBucket} of its own, keyed by {@link ClientKeys}: the JWT
+ * subject, or the remote address for requests without a valid token.
+ * <p>
+ * Each request costs 1 token unless a cost weight matches it, so that expensive endpoints such as search
+ * or bulk writes use up a client's budget faster. Weights are given as {@code [METHOD ]pattern=cost} entries,
+ * e.g. {@code GET /api/inventory/items/search=5}; the first matching entry applies. A request over budget
+ * is answered with 429 and a Retry-After header saying when enough tokens will be available.
+ * <p>
+ * At most {@code maxClients} buckets are kept. Full buckets are dropped to make room for new clients; while
+ * every tracked client is mid-burst, new clients are refused rather than resetting anyone's budget.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ClientKeys clientKeys;
+    private final int capacity;
+    private final double refillPerSecond;
+    private final List<Cost> costs;
+    private final int maxClients;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong nextSweepNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * @throws IllegalArgumentException if a cost entry is malformed or costs more than the capacity,
+     *                                  which no request could ever be admitted with
+     */
+    public RateLimitFilter(ClientKeys clientKeys, int capacity, double refillPerSecond, List<String> costs,
+                           int maxClients) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit capacity and refill rate must be positive");
+        }
+        this.clientKeys = clientKeys;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.costs = costs.stream().map(String::trim).filter(entry -> !entry.isEmpty()).map(this::parseCost).toList();
+        this.maxClients = maxClients;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+        TokenBucket bucket = bucketOf(clientKeys.of(request), now);
+        long waitNanos = bucket != null
+                ? bucket.tryConsume(costOf(request), now)
+                : Math.max(1, nextSweepNanos.get() - now);
+        if (waitNanos > 0) {
+            rejected.increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+
+    int costOf(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (Cost cost : costs) {
+            if ((cost.method() == null || cost.method().equalsIgnoreCase(request.getMethod())) && cost.pattern().matches(path)) {
+                return cost.tokens();
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * @return the client's bucket, or null if it is new and there is no room for it
+     */
+    private TokenBucket bucketOf(String client, long now) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            // Full buckets carry no state worth keeping. Sweeping them takes a pass over every client, so it
+            // happens at most once per interval rather than for every new client while the map is full.
+            long sweepAt = nextSweepNanos.get();
+            if (now - sweepAt >= 0 && nextSweepNanos.compareAndSet(sweepAt, now + SWEEP_INTERVAL_NANOS)) {
+                buckets.values().removeIf(existing -> existing.isFull(now));
+            }
+            if (buckets.size() >= maxClients) {
+                // Dropping a client that is mid-burst would hand it a fresh budget
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(client, key -> new TokenBucket(capacity, refillPerSecond, now));
+    }
+
+    private Cost parseCost(String entry) {
+        int equals = entry.lastIndexOf('=');
+        if (equals < 0) {
+            throw new IllegalArgumentException("Rate limit cost '" + entry + "' must have the form [METHOD ]pattern=cost");
+        }
+        String target = entry.substring(0, equals).trim();
+        int tokens = Integer.parseInt(entry.substring(equals + 1).trim());
+        if (tokens < 0 || tokens > capacity) {
+            throw new IllegalArgumentException("Rate limit cost '" + entry + "' must be between 0 and the capacity "
+                    + capacity);
+        }
+        int space = target.indexOf(' ');
+        String method = space < 0 ? null : target.substring(0, space);
+        String pattern = space < 0 ? target : target.substring(space + 1).trim();
+        return new Cost(method, PathPatternParser.defaultInstance.parse(pattern), tokens);
+    }
+
+    private record Cost(String method, PathPattern pattern, int tokens) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.inventory.admission;
+
+/**
+ * A token bucket: holds up to {@code capacity} tokens and refills continuously at {@code refillPerSecond}.
+ * A request costing n tokens is admitted if n tokens are available, which allows bursts up to the capacity
+ * and a sustained rate of the refill rate. Time is passed in by the caller.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    // Guarded by this
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.refilledAt = nowNanos;
+    }
+
+    /**
+     * Takes the tokens if enough are available.
+     *
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until enough will be available
+     */
+    synchronized long tryConsume(int cost, long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= cost) {
+            tokens -= cost;
+            return 0;
+        }
+        return (long) Math.ceil((cost - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Whether the bucket has refilled completely, i.e. forgetting it would not change any decision.
+     */
+    synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - refilledAt;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            refilledAt = nowNanos;
+        }
+    }
+}
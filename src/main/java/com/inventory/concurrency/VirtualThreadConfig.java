@@ -0,0 +1,76 @@
+package com.inventory.concurrency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in mode that serves HTTP requests on virtual threads instead of Tomcat's platform thread pool.
+ * Repository calls run on the request thread, so they run on virtual threads as well; the data
+ * source JPA uses is wrapped in a {@link JdbcPermitDataSource} so that pinning inside the JDBC driver stays
+ * bounded. Only that one is wrapped: with the read replica it routes to the primary and replica pools, which
+ * a permit of their own would make every connection take twice.
+ * <p>
+ * Enabled with {@code inventory.threads.virtual.enabled=true}; requires Java 21 at runtime.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    // The bean name of the data source JPA and everything else uses, including the replica router
+    static final String JPA_DATA_SOURCE = "dataSource";
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    public VirtualThreadConfig() {
+        // Fail at startup rather than silently measuring platform threads
+        if (!VirtualThreads.isSupported()) {
+            throw new IllegalStateException("inventory.threads.virtual.enabled is set, but virtual threads require "
+                    + "Java 21 or newer (running on " + Runtime.version() + ")");
+        }
+        log.info("Serving requests on virtual threads");
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return VirtualThreads.newPerTaskExecutor();
+    }
+
+    // Replaces Tomcat's worker pool, so maxThreads no longer caps concurrent requests
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    // Used by Spring MVC for async results such as the streaming export
+    @Bean(name = "applicationTaskExecutor")
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    @Bean
+    public static BeanPostProcessor jdbcPermitPostProcessor(
+            @Value("${inventory.threads.virtual.jdbc-permits:10}") int permits,
+            @Value("${inventory.threads.virtual.jdbc-acquire-timeout-ms:30000}") long acquireTimeoutMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (JPA_DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof JdbcPermitDataSource)) {
+                    return new JdbcPermitDataSource(dataSource, permits, acquireTimeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.inventory.controller;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Lets clients exchange CBOR ({@code application/cbor}) or Smile ({@code application/x-jackson-smile})
+ * instead of JSON on every endpoint that reads or writes objects, chosen with the Accept and Content-Type
+ * headers. Both encode numbers, including prices, in binary rather than as decimal text, which makes
+ * large lists considerably cheaper to write and parse.
+ * <p>
+ * The binary converters are configured like the JSON one and come right after it, so JSON stays the
+ * default for clients that accept anything.
+ */
+@Configuration
+public class BinaryContentConfig {
+
+    @Bean
+    public WebMvcConfigurer binaryContentConverters(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        MappingJackson2CborHttpMessageConverter cbor = new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build());
+        MappingJackson2SmileHttpMessageConverter smile = new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(new SmileFactory()).build());
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                // Replaces the default binary converters, which ignore the application's Jackson settings
+                converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                        || converter instanceof MappingJackson2SmileHttpMessageConverter);
+                int json = 0;
+                while (json < converters.size() && !(converters.get(json) instanceof MappingJackson2HttpMessageConverter)) {
+                    json++;
+                }
+                converters.addAll(Math.min(json + 1, converters.size()), List.of(cbor, smile));
+            }
+        };
+    }
+}
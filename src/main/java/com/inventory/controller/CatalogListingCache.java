@@ -0,0 +1,165 @@
+package com.inventory.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inventory.Service.CatalogRevision;
+import com.inventory.Service.InventoryService;
+import com.inventory.event.InventoryChangeEvent;
+import com.inventory.model.CacheStats;
+import com.inventory.model.Inventory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The full item listing of {@code GET /api/inventory/items}, serialized to JSON and gzipped ahead of time.
+ * <p>
+ * A listing is tagged with the catalog revision read before the table was, and is only served while that
+ * is still the current revision, so it never lags behind a committed change. Committed changes schedule
+ * a rebuild on a background thread after {@code inventory.listing-cache.rebuild-delay-ms}, which folds a
+ * burst of writes into one rebuild; until it completes, requests take the regular path. The listing is
+ * read from the primary with a database cursor and serialized straight into the buffer.
+ */
+@Component
+public class CatalogListingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogListingCache.class);
+
+    private final InventoryService inventoryService;
+    private final CatalogRevision catalogRevision;
+    private final ObjectWriter itemWriter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long rebuildDelayMillis;
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile Listing listing;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    @Autowired
+    public CatalogListingCache(InventoryService inventoryService, CatalogRevision catalogRevision,
+                               ObjectMapper objectMapper,
+                               @Value("${inventory.listing-cache.enabled:true}") boolean enabled,
+                               @Value("${inventory.listing-cache.rebuild-delay-ms:100}") long rebuildDelayMillis) {
+        this.inventoryService = inventoryService;
+        this.catalogRevision = catalogRevision;
+        this.objectMapper = objectMapper;
+        this.itemWriter = objectMapper.writerFor(Inventory.class);
+        this.enabled = enabled;
+        this.rebuildDelayMillis = rebuildDelayMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        scheduleRebuild();
+    }
+
+    /**
+     * Returns the pre-serialized listing if it reflects the current catalog revision.
+     *
+     * @return the listing, or null if it is being rebuilt
+     */
+    public Listing current() {
+        Listing current = listing;
+        if (current != null && current.revision().equals(catalogRevision.current())) {
+            hits.increment();
+            return current;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Returns how often requests were served the pre-serialized listing; size is the number of cached
+     * listings (0 or 1) and invalidations counts rebuilds.
+     */
+    public CacheStats getStats() {
+        return new CacheStats(listing == null ? 0 : 1, 1, hits.sum(), misses.sum(), 0, 0, rebuilds.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (enabled && rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.schedule(this::rebuild, rebuildDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuild() {
+        // Changes committing from here on schedule the next rebuild
+        rebuildScheduled.set(false);
+        long startedAt = System.nanoTime();
+        String revision = catalogRevision.current();
+        try {
+            byte[] json = serializeListing();
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+            // Compressed once and served many times, so the best ratio is worth the extra effort
+            try (OutputStream out = new GZIPOutputStream(gzipped) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                out.write(json);
+            }
+            listing = new Listing(revision, json, gzipped.toByteArray());
+            rebuilds.increment();
+            log.debug("Rebuilt catalog listing at revision {}: {} bytes, {} gzipped, in {} ms", revision, json.length,
+                    gzipped.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Rebuilding the catalog listing failed; requests use the regular path until the next change", e);
+        }
+    }
+
+    private byte[] serializeListing() throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            generator.writeStartArray();
+            inventoryService.streamAllInventory(item -> {
+                try {
+                    itemWriter.writeValue(generator, item);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
+        return json.toByteArray();
+    }
+
+    /**
+     * The listing as JSON, plain and gzipped, at a catalog revision.
+     */
+    public record Listing(String revision, byte[] json, byte[] gzippedJson) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.inventory.controller;
+
+import java.util.Arrays;
+
+/**
+ * Builds and compares the entity tags used for conditional requests.
+ * Items are tagged with their version, collections with the catalog revision. Representations other than
+ * JSON carry a suffix naming their encoding, e.g. {@code "3-cbor"}, as each needs a strong tag of its own.
+ */
+final class EntityTags {
+
+    private static final String GZIP_SUFFIX = "-gzip\"";
+
+    private EntityTags() {
+    }
+
+    static String of(Object value) {
+        return "\"" + value + "\"";
+    }
+
+    /**
+     * The tag of the value in the given encoding.
+     *
+     * @param encoding the suffix of a non-JSON representation, or null for JSON
+     */
+    static String of(Object value, String encoding) {
+        return encoding == null ? of(value) : of(value + "-" + encoding);
+    }
+
+    /**
+     * The tag of a gzip-encoded body, which must differ from the tag of the same representation unencoded.
+     */
+    static String gzipped(String etag) {
+        return etag.substring(0, etag.length() - 1) + GZIP_SUFFIX;
+    }
+
+    /**
+     * Whether an If-None-Match or If-Match header lists the tag. Weak tags compare equal to strong ones
+     * with the same value, as If-None-Match requires, and gzipped tags equal to the unencoded ones, as both
+     * are current whenever either is.
+     */
+    static boolean matches(String header, String etag) {
+        if (header == null || etag == null) {
+            return false;
+        }
+        String identity = withoutGzip(etag);
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || withoutGzip(tag).equals(identity));
+    }
+
+    private static String withoutGzip(String etag) {
+        return etag.endsWith(GZIP_SUFFIX)
+                ? etag.substring(0, etag.length() - GZIP_SUFFIX.length()) + "\""
+                : etag;
+    }
+
+    /**
+     * Reads the version out of an If-Match header holding a single item tag, in any encoding and with or
+     * without the live stock of a hot item.
+     *
+     * @return the version, or null if the header is absent or {@code *}
+     * @throws IllegalArgumentException if the header is not a single version tag
+     */
+    static Long version(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must hold a single entity tag: " + ifMatch);
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        int suffix = value.indexOf('-');
+        try {
+            return Long.valueOf(suffix < 0 ? value : value.substring(0, suffix));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown entity tag: " + ifMatch, e);
+        }
+    }
+}
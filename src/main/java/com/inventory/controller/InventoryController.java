@@ -1,28 +1,175 @@
 package com.inventory.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.inventory.datasource.ReplicaReads;
+import com.inventory.model.BulkItemResult;
+import com.inventory.model.CacheStats;
+import com.inventory.model.CursorPage;
+import com.inventory.model.ImportProgress;
 import com.inventory.model.Inventory;
+import com.inventory.model.InventoryAggregates;
+import com.inventory.model.InventoryChange;
+import com.inventory.model.StockLevel;
+import com.inventory.Service.CatalogRevision;
+import com.inventory.Service.InsufficientStockException;
+import com.inventory.Service.InventoryChangeFeed;
+import com.inventory.Service.InventoryCsvImporter;
+import com.inventory.Service.InventoryCsvReader;
 import com.inventory.Service.InventoryService;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/inventory")
 public class InventoryController {
 
+    static final String APPLICATION_CBOR_SEQ_VALUE = "application/cbor-seq";
+    static final MediaType APPLICATION_CBOR_SEQ = MediaType.parseMediaType(APPLICATION_CBOR_SEQ_VALUE);
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     @Autowired
     private InventoryService inventoryService;
 
-    // GET method to retrieve all inventory items
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogRevision catalogRevision;
+
+    @Autowired
+    private InventoryCsvImporter inventoryCsvImporter;
+
+    @Autowired
+    private CatalogListingCache catalogListingCache;
+
+    // GET method to retrieve all inventory items. JSON is served from the pre-serialized listing while it is
+    // current, already gzipped for clients that accept gzip; other encodings and a stale listing take the regular path.
     @GetMapping("/items")
-    public ResponseEntity<List<Inventory>> getAllInventoryItems() {
-        List<Inventory> inventoryList = inventoryService.getAllInventory();
-        return new ResponseEntity<>(inventoryList, HttpStatus.OK);
+    public ResponseEntity<?> getAllInventoryItems(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        CatalogListingCache.Listing listing = MediaType.APPLICATION_JSON.equals(
+                preferredType(accept, MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE))
+                ? catalogListingCache.current() : null;
+        if (listing == null) {
+            return catalogResponse(ifNoneMatch, accept, inventoryService::getAllInventory);
+        }
+
+        String etag = EntityTags.of(listing.revision());
+        // The gzipped body is tagged "<revision>-gzip"; either tag revalidates either body
+        boolean gzip = acceptsGzip(acceptEncoding);
+        if (gzip) {
+            etag = EntityTags.gzipped(etag);
+        }
+        if (EntityTags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(listing.gzippedJson());
+        }
+        return response.body(listing.json());
+    }
+
+    // GET method to retrieve only the listed attributes of all items, e.g. ?fields=id,stockQuantity.
+    // Only the requested columns are read from the database; id is always included.
+    @GetMapping(value = "/items", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllInventoryItemFields(
+            @RequestParam List<String> fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        try {
+            return catalogResponse(ifNoneMatch, accept, () -> inventoryService.getAllInventory(fields));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // GET method to retrieve a single inventory item, served from the item cache when possible.
+    // The ETag is the item's version, with a suffix for CBOR and Smile; a matching If-None-Match gets 304
+    // without a body. Responses vary by Accept. The tag of a hot item also carries its live stock, which
+    // changes without the version until the counters are flushed.
+    @GetMapping("/items/{id}")
+    public ResponseEntity<Inventory> getInventoryItem(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        return inventoryService.getInventoryById(id)
+                .map(item -> {
+                    Object tagValue = inventoryService.isHotStock(id)
+                            ? item.getVersion() + "-stock" + item.getStockQuantity()
+                            : item.getVersion();
+                    String etag = representationTag(tagValue, accept);
+                    if (EntityTags.matches(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT)
+                                .<Inventory>build();
+                    }
+                    return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(item);
+                })
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // GET method to report catalog totals (item count, out-of-stock count, units, stock value) from running totals
+    @GetMapping("/aggregates")
+    public ResponseEntity<InventoryAggregates> getInventoryAggregates(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        return catalogResponse(ifNoneMatch, accept, inventoryService::getInventoryAggregates);
+    }
+
+    // GET method to report hit, miss and eviction counters of the item cache
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStats> getItemCacheStats() {
+        return new ResponseEntity<>(inventoryService.getItemCacheStats(), HttpStatus.OK);
+    }
+
+    // GET method to stream all inventory items as newline-delimited JSON, one item per line.
+    // Items are read through a database cursor and written as they arrive, so the full list is never held in memory.
+    // Clients that prefer application/cbor-seq get a CBOR sequence (RFC 8742) instead: CBOR items back to back.
+    @GetMapping(value = "/items/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, APPLICATION_CBOR_SEQ_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportInventoryItems(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        if (APPLICATION_CBOR_SEQ.equals(preferredType(accept, MediaType.APPLICATION_NDJSON, APPLICATION_CBOR_SEQ))) {
+            // A copy of the JSON mapper keeps its settings; one copy per export is negligible next to the export
+            return exportInventoryItems(objectMapper.copyWith(new CBORFactory()), APPLICATION_CBOR_SEQ, "");
+        }
+        return exportInventoryItems(objectMapper, MediaType.APPLICATION_NDJSON, "\n");
     }
 
     // New GET method to retrieve paginated and sorted inventory items
@@ -30,23 +177,165 @@ public class InventoryController {
     public ResponseEntity<Page<Inventory>> getPagedAndSortedInventoryItems(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "name") String sortBy
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) {
         PageRequest pageable = PageRequest.of(page, size, org.springframework.data.domain.Sort.by(sortBy));
-        Page<Inventory> inventoryPage = inventoryService.getPagedInventory(pageable);
+        return catalogResponse(ifNoneMatch, accept, () -> inventoryService.getPagedInventory(pageable));
+    }
+
+    // GET method to retrieve a page of the listed attributes only
+    @GetMapping(value = "/items/paged", params = "fields")
+    public ResponseEntity<Page<Map<String, Object>>> getPagedInventoryItemFields(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam List<String> fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        try {
+            PageRequest pageable = PageRequest.of(page, size, Sort.by(sortBy));
+            return catalogResponse(ifNoneMatch, accept, () -> inventoryService.getPagedInventory(pageable, fields));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
 
-        return new ResponseEntity<>(inventoryPage, HttpStatus.OK);
+    // GET method to scroll through inventory items with keyset pagination.
+    // Pass the returned nextCursor back to fetch the following slice; the total count is only computed on request.
+    @GetMapping("/items/scroll")
+    public ResponseEntity<CursorPage<Inventory>> scrollInventoryItems(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        try {
+            Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+            return catalogResponse(ifNoneMatch, accept,
+                    () -> inventoryService.getInventoryAfterCursor(cursor, sortBy, sortDirection, size, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping("/items/search")
-    public ResponseEntity<List<Inventory>> searchInventory(@RequestParam("query") String query) {
-        // Use the service layer to search inventory by name or description
-        List<Inventory> searchResults = inventoryService.searchInventory(query);
+    public ResponseEntity<List<Inventory>> searchInventory(
+            @RequestParam("query") String query,
+            @RequestParam(defaultValue = "" + InventoryService.DEFAULT_SEARCH_LIMIT) int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        // Use the service layer to search inventory by name or description, best matches first
+        return catalogResponse(ifNoneMatch, accept, () -> inventoryService.searchInventory(query, limit));
+    }
+
+    // GET method to search and return only the listed attributes of the matches
+    @GetMapping(value = "/items/search", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> searchInventoryFields(
+            @RequestParam("query") String query,
+            @RequestParam(defaultValue = "" + InventoryService.DEFAULT_SEARCH_LIMIT) int limit,
+            @RequestParam List<String> fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        try {
+            return catalogResponse(ifNoneMatch, accept, () -> inventoryService.searchInventory(query, limit, fields));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // GET method to list items whose stock is below the threshold, lowest stock first
+    @GetMapping("/items/low-stock")
+    public ResponseEntity<List<Inventory>> getLowStockInventoryItems(
+            @RequestParam(defaultValue = "${inventory.low-stock.threshold:10}") int threshold,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        return catalogResponse(ifNoneMatch, accept, () -> inventoryService.findInventoryBelowStockThreshold(threshold));
+    }
 
-        // Return a response with the search results
-        return new ResponseEntity<>(searchResults, HttpStatus.OK);
+    // GET method to list only the listed attributes of low-stock items, e.g. for stock synchronisation
+    @GetMapping(value = "/items/low-stock", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getLowStockInventoryItemFields(
+            @RequestParam(defaultValue = "${inventory.low-stock.threshold:10}") int threshold,
+            @RequestParam List<String> fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        try {
+            return catalogResponse(ifNoneMatch, accept, () -> inventoryService.findInventoryBelowStockThreshold(threshold, fields));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
+    // GET method to subscribe to items crossing the stock threshold, pushed as server-sent events
+    @GetMapping(value = "/items/low-stock/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToLowStock(
+            @RequestParam(defaultValue = "${inventory.low-stock.threshold:10}") int threshold
+    ) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Runnable unsubscribe = inventoryService.subscribeToStockThreshold(threshold, crossing -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(crossing.direction().name().toLowerCase())
+                        .data(crossing, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                // The client has gone away
+                emitter.completeWithError(e);
+            }
+        });
+
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return emitter;
+    }
+
+    // GET method to follow committed inventory changes as server-sent events. A reconnecting client
+    // sends the id of the last event it received and is replayed everything after it; if that is no
+    // longer retained, it gets a resync event and must reload the catalog before following again.
+    @GetMapping(value = "/items/changes/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Runnable unsubscribe;
+        try {
+            unsubscribe = inventoryService.subscribeToChanges(lastEventId, new InventoryChangeFeed.Subscriber() {
+                @Override
+                public void onChange(String eventId, InventoryChange change) {
+                    send(emitter, SseEmitter.event()
+                            .id(eventId)
+                            .name(change.type().name().toLowerCase())
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+
+                @Override
+                public void onResync(String resumeEventId) {
+                    send(emitter, SseEmitter.event()
+                            .name("resync")
+                            .data(Map.of("lastEventId", resumeEventId), MediaType.APPLICATION_JSON));
+                    emitter.complete();
+                }
+            });
+        } catch (IllegalStateException e) {
+            // Too many subscribers
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return ResponseEntity.ok(emitter);
+    }
 
     // POST request to create a new inventory item
     @PostMapping("/items")
@@ -58,13 +347,108 @@ public class InventoryController {
         return new ResponseEntity<>(createdItem, HttpStatus.CREATED);
     }
 
+    // POST request to create many inventory items in chunked, batched transactions
+    @PostMapping("/items/bulk")
+    public ResponseEntity<List<BulkItemResult>> createInventoryItemsInBulk(@RequestBody List<Inventory> items) {
+        // One result per submitted item, in the same order
+        List<BulkItemResult> results = inventoryService.createInventoryInBulk(items);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    // PUT request to update many inventory items, each identified by its id
+    @PutMapping("/items/bulk")
+    public ResponseEntity<List<BulkItemResult>> updateInventoryItemsInBulk(@RequestBody List<Inventory> items) {
+        List<BulkItemResult> results = inventoryService.updateInventoryInBulk(items);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    // POST request to import a CSV catalog, upserting items by name. The upload is read as a stream and
+    // the response reports progress as NDJSON, one line per written batch and a final line with done set.
+    @PostMapping(value = "/items/import", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importInventoryItems(InputStream csvBody) throws IOException {
+        InventoryCsvReader csv;
+        try {
+            // Read the header up front so that a malformed file is refused before anything is written
+            csv = new InventoryCsvReader(new InputStreamReader(csvBody, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        ObjectWriter progressWriter = objectMapper.writerFor(ImportProgress.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = outputStream -> inventoryCsvImporter.importCsv(csv, progress -> {
+            try {
+                progressWriter.writeValue(outputStream, progress);
+                outputStream.write('\n');
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // PUT request to update an item. With If-Match, the update only applies if the item is still at that
+    // version (412 otherwise); without it, an update that races another one is rejected with 409.
     @PutMapping("/items/{id}")
     public ResponseEntity<Inventory> updateInventoryItem(
             @PathVariable Long id,
-            @RequestBody Inventory updatedInventory
+            @RequestBody Inventory updatedInventory,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) {
-        Inventory updatedItem = inventoryService.updateInventory(id, updatedInventory);
-        return new ResponseEntity<>(updatedItem, HttpStatus.OK);
+        try {
+            Inventory updatedItem = inventoryService.updateInventory(id, updatedInventory, EntityTags.version(ifMatch));
+            return ResponseEntity.ok().eTag(representationTag(updatedItem.getVersion(), accept)).body(updatedItem);
+        } catch (IllegalArgumentException e) {
+            // An If-Match tag that is not one of ours can never match
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        } catch (EntityNotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return new ResponseEntity<>(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);
+        }
+    }
+
+    // POST request to add to or take from an item's stock atomically
+    @PostMapping("/items/{id}/stock/adjust")
+    public ResponseEntity<StockLevel> adjustStock(
+            @PathVariable Long id,
+            @RequestBody StockAdjustmentRequest adjustment
+    ) {
+        try {
+            int stockQuantity = inventoryService.adjustStock(id, adjustment.getDelta());
+            return new ResponseEntity<>(new StockLevel(id, stockQuantity), HttpStatus.OK);
+        } catch (EntityNotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (InsufficientStockException e) {
+            // Reject the adjustment rather than let stock go negative
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    // POST request to move an item's stock into in-memory hot-stock counters, e.g. ahead of a flash sale
+    @PostMapping("/items/{id}/hot-stock")
+    public ResponseEntity<Void> promoteToHotStock(@PathVariable Long id) {
+        try {
+            inventoryService.promoteToHotStock(id);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (EntityNotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            // Hot-stock mode is switched off
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    // DELETE request to flush an item's hot-stock counters and return it to database-backed stock
+    @DeleteMapping("/items/{id}/hot-stock")
+    public ResponseEntity<Void> demoteFromHotStock(@PathVariable Long id) {
+        inventoryService.demoteFromHotStock(id);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
     @DeleteMapping("/items/{id}")
@@ -76,4 +460,93 @@ public class InventoryController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            // The client has gone away
+            emitter.completeWithError(e);
+        }
+    }
+
+    // The offered type the client prefers most according to its Accept header; wildcards and a missing or
+    // unparseable header mean the first offered type
+    private static MediaType preferredType(String accept, MediaType... offered) {
+        if (accept == null) {
+            return offered[0];
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .filter(accepted -> accepted.getQualityValue() > 0)
+                    .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                    .flatMap(accepted -> Arrays.stream(offered).filter(accepted::isCompatibleWith).limit(1))
+                    .findFirst()
+                    .orElse(offered[0]);
+        } catch (InvalidMediaTypeException e) {
+            return offered[0];
+        }
+    }
+
+    // Whether an Accept-Encoding header allows gzip, explicitly or through * if gzip is not listed
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean refused = parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?");
+            if (name.equalsIgnoreCase("gzip")) {
+                return !refused;
+            }
+            wildcard |= name.equals("*") && !refused;
+        }
+        return wildcard;
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportInventoryItems(ObjectMapper mapper, MediaType contentType,
+                                                                       String separator) {
+        ObjectWriter itemWriter = mapper.writerFor(Inventory.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        byte[] separatorBytes = separator.getBytes(StandardCharsets.UTF_8);
+
+        StreamingResponseBody body = outputStream -> inventoryService.streamAllInventory(item -> {
+            try {
+                itemWriter.writeValue(outputStream, item);
+                outputStream.write(separatorBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .body(body);
+    }
+
+    // The tag of a value in the representation the Accept header selects; CBOR and Smile get tags of their own
+    private static String representationTag(Object value, String accept) {
+        MediaType type = preferredType(accept, MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+        if (MediaType.APPLICATION_CBOR.equals(type)) {
+            return EntityTags.of(value, "cbor");
+        }
+        return EntityTags.of(value, APPLICATION_SMILE.equals(type) ? "smile" : null);
+    }
+
+    // Tags a collection response with the catalog revision. The revision is read before the body is
+    // computed, and a client already holding it gets 304 without the query running at all.
+    private <T> ResponseEntity<T> catalogResponse(String ifNoneMatch, String accept, Supplier<T> body) {
+        String etag = representationTag(catalogRevision.current(), accept);
+        if (EntityTags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        ReplicaReads.Tracked<T> result = ReplicaReads.tracked(body);
+        if (result.fromReplica()) {
+            // The replica may lag behind the revision, so the body must not be cached under its tag
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(result.value());
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(result.value());
+    }
+
 }
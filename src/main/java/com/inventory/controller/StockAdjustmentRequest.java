@@ -0,0 +1,22 @@
+package com.inventory.controller;
+
+public class StockAdjustmentRequest {
+    // Units to add to the current stock; negative to take units out
+    private int delta;
+
+    // Default constructor
+    public StockAdjustmentRequest() {
+    }
+
+    public StockAdjustmentRequest(int delta) {
+        this.delta = delta;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+}
@@ -0,0 +1,77 @@
+package com.inventory.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.engine.jdbc.connections.spi.AbstractDataSourceBasedMultiTenantConnectionProviderImpl;
+import org.hibernate.service.spi.Stoppable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Hands Hibernate the connections of the partition a session was opened for. Partitions are Hibernate
+ * tenants named by their index, which also gives every partition its own block of sequence ids.
+ * <p>
+ * Hibernate creates and updates the schema only in the first partition. Partitions without the
+ * inventory table receive a copy of its DDL (H2 {@code SCRIPT NODATA}) and have their id sequence moved
+ * to the start of their id range; partitions that already have the table are left as they are.
+ */
+public class PartitionConnectionProvider extends AbstractDataSourceBasedMultiTenantConnectionProviderImpl
+        implements Stoppable {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionConnectionProvider.class);
+
+    // Must match the allocationSize of the id generator: the first block a pooled sequence hands out
+    // ends at its first value
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final List<DataSource> partitions;
+
+    public PartitionConnectionProvider(List<DataSource> partitions) {
+        this.partitions = List.copyOf(partitions);
+    }
+
+    @Override
+    protected DataSource selectAnyDataSource() {
+        return partitions.get(0);
+    }
+
+    @Override
+    protected DataSource selectDataSource(String tenantIdentifier) {
+        return partitions.get(Integer.parseInt(tenantIdentifier));
+    }
+
+    /**
+     * Copies the schema of the first partition into every partition that has no inventory table yet.
+     */
+    public void copySchemaToEmptyPartitions() {
+        List<String> script = null;
+        for (int partition = 1; partition < partitions.size(); partition++) {
+            JdbcTemplate target = new JdbcTemplate(partitions.get(partition));
+            Integer tables = target.queryForObject(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'INVENTORY'", Integer.class);
+            if (tables != null && tables > 0) {
+                continue;
+            }
+            if (script == null) {
+                script = new JdbcTemplate(partitions.get(0)).queryForList("SCRIPT NODATA", String.class);
+            }
+            script.forEach(target::execute);
+            target.execute("ALTER SEQUENCE inventory_seq RESTART WITH "
+                    + (partition * WarehousePartitions.ID_RANGE + ID_ALLOCATION_SIZE));
+            log.info("Created the inventory schema in partition {}", partition);
+        }
+    }
+
+    // The first partition is the application's data source and closed with it
+    @Override
+    public void stop() {
+        for (DataSource partition : partitions.subList(1, partitions.size())) {
+            if (partition instanceof HikariDataSource pool) {
+                pool.close();
+            }
+        }
+    }
+}
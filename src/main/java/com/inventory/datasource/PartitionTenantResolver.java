@@ -0,0 +1,21 @@
+package com.inventory.datasource;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Opens Hibernate sessions on the partition bound to the calling thread by {@link WarehousePartitions},
+ * or on the first partition if none is bound.
+ */
+public class PartitionTenantResolver implements CurrentTenantIdentifierResolver {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        Integer partition = WarehousePartitions.bound();
+        return partition == null ? "0" : partition.toString();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
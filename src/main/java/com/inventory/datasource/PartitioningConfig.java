@@ -0,0 +1,90 @@
+package com.inventory.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opt-in warehouse partitioning: the inventory is split across the database configured with
+ * {@code spring.datasource.*}, the first partition, and one more database per entry of
+ * {@code inventory.partitioning.urls}. See {@link WarehousePartitions} for how items are placed and found.
+ * <p>
+ * Enabled with {@code inventory.partitioning.enabled=true}. Cannot be combined with the read replica or
+ * the inventory snapshot, which both copy a single database.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.partitioning.enabled", havingValue = "true")
+public class PartitioningConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitioningConfig.class);
+
+    public PartitioningConfig(@Value("${inventory.datasource.replica.enabled:false}") boolean replicaEnabled,
+                              @Value("${inventory.snapshot.enabled:false}") boolean snapshotEnabled) {
+        if (replicaEnabled || snapshotEnabled) {
+            throw new IllegalStateException("inventory.partitioning cannot be combined with "
+                    + "inventory.datasource.replica or inventory.snapshot");
+        }
+    }
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("partition-0");
+        return dataSource;
+    }
+
+    @Bean
+    public PartitionConnectionProvider partitionConnectionProvider(
+            @Qualifier("dataSource") DataSource first,
+            @Value("${inventory.partitioning.urls}") List<String> urls,
+            @Value("${inventory.partitioning.username:sa}") String username,
+            @Value("${inventory.partitioning.password:}") String password) {
+        List<DataSource> partitions = new ArrayList<>();
+        partitions.add(first);
+        for (String url : urls) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .username(username)
+                    .password(password)
+                    .build();
+            dataSource.setPoolName("partition-" + partitions.size());
+            partitions.add(dataSource);
+        }
+        log.info("Partitioning the inventory by warehouse across {} databases", partitions.size());
+        return new PartitionConnectionProvider(partitions);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer partitionTenancy(PartitionConnectionProvider connectionProvider) {
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, connectionProvider);
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new PartitionTenantResolver());
+        };
+    }
+
+    // Runs once every singleton is initialized, including the entity manager factory that creates the
+    // schema in the first partition, and before anything reads the other partitions
+    @Bean
+    public SmartInitializingSingleton partitionSchemas(PartitionConnectionProvider connectionProvider) {
+        return connectionProvider::copySchemaToEmptyPartitions;
+    }
+}
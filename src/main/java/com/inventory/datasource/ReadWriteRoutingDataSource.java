@@ -0,0 +1,45 @@
+package com.inventory.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections of eligible read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * A connection goes to the replica only inside {@link ReplicaReads#read}, in a read-only transaction, and
+ * when the current client has no open {@link ReadYourWritesWindow}. The routing decision reads the
+ * transaction state, which is only complete once the transaction has begun, so this data source must sit
+ * behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that fetches the
+ * connection at the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadYourWritesWindow readYourWrites;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesWindow readYourWrites) {
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        boolean replicaRead = ReplicaReads.isEligible()
+                && TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!replicaRead || readYourWrites.isOpenForCurrentClient()) {
+            return Route.PRIMARY;
+        }
+        ReplicaReads.recordReplicaUse();
+        return Route.REPLICA;
+    }
+}
@@ -0,0 +1,33 @@
+package com.inventory.datasource;
+
+import com.inventory.security.ClientKeys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Identifies the client of each request for {@link ReadYourWritesWindow}.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ClientKeys clientKeys;
+
+    public ReadYourWritesFilter(ClientKeys clientKeys) {
+        this.clientKeys = clientKeys;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String previous = ReadYourWritesWindow.bindClient(clientKeys.of(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWritesWindow.restoreClient(previous);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.inventory.datasource;
+
+import com.inventory.event.InventoryChangeEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which clients wrote recently, so that their own reads go to the primary until the replica
+ * has had time to catch up with their writes.
+ * <p>
+ * The client of the current thread is set by {@link ReadYourWritesFilter} for the duration of a request.
+ * A committed change made on behalf of a client opens its window; reads on threads without a client,
+ * such as scheduled jobs, never get one.
+ */
+public class ReadYourWritesWindow {
+
+    // Clients are only dropped once this many are tracked, and then only the ones whose window has closed
+    private static final int MAX_TRACKED_CLIENTS = 10_000;
+
+    private static final ThreadLocal<String> CURRENT_CLIENT = new ThreadLocal<>();
+
+    private final long windowNanos;
+
+    // Client -> System.nanoTime() at which its window closes
+    private final Map<String, Long> windows = new ConcurrentHashMap<>();
+
+    public ReadYourWritesWindow(long windowMillis) {
+        this.windowNanos = windowMillis * 1_000_000;
+    }
+
+    /**
+     * Makes the client the current thread's client; changes the thread commits open the client's window.
+     *
+     * @return the previous client of the thread, to be passed to {@link #restoreClient(String)}
+     */
+    public static String bindClient(String client) {
+        String previous = CURRENT_CLIENT.get();
+        CURRENT_CLIENT.set(client);
+        return previous;
+    }
+
+    public static void restoreClient(String previous) {
+        if (previous == null) {
+            CURRENT_CLIENT.remove();
+        } else {
+            CURRENT_CLIENT.set(previous);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        String client = CURRENT_CLIENT.get();
+        if (client == null || windowNanos <= 0) {
+            return;
+        }
+        if (windows.size() >= MAX_TRACKED_CLIENTS) {
+            long now = System.nanoTime();
+            windows.values().removeIf(closesAt -> closesAt - now <= 0);
+        }
+        windows.put(client, System.nanoTime() + windowNanos);
+    }
+
+    /**
+     * Whether the client of the current thread committed a change within the window.
+     */
+    public boolean isOpenForCurrentClient() {
+        String client = CURRENT_CLIENT.get();
+        if (client == null) {
+            return false;
+        }
+        Long closesAt = windows.get(client);
+        if (closesAt == null) {
+            return false;
+        }
+        if (closesAt - System.nanoTime() > 0) {
+            return true;
+        }
+        windows.remove(client, closesAt);
+        return false;
+    }
+}
@@ -0,0 +1,85 @@
+package com.inventory.datasource;
+
+import com.inventory.security.ClientKeys;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in read replica: {@link ReplicaReads reporting reads} go to a separately configured database,
+ * all other statements to the primary configured with {@code spring.datasource.*}.
+ * <p>
+ * Enabled with {@code inventory.datasource.replica.enabled=true} and {@code inventory.datasource.replica.url}.
+ * For local use, {@code inventory.datasource.replica.stand-in.enabled=true} keeps an H2 replica in sync
+ * through a {@link ReplicationStandIn}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSourceConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(@Value("${inventory.datasource.replica.url}") String url,
+                                              @Value("${inventory.datasource.replica.username:sa}") String username,
+                                              @Value("${inventory.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        log.info("Routing reporting reads to the replica at {}", url);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesWindow readYourWritesWindow(
+            @Value("${inventory.datasource.replica.read-your-writes-ms:5000}") long windowMillis) {
+        return new ReadYourWritesWindow(windowMillis);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ClientKeys clientKeys) {
+        return new ReadYourWritesFilter(clientKeys);
+    }
+
+    // The data source JPA and everything else uses. The lazy proxy defers fetching a connection until
+    // the first statement, when the transaction's read-only flag is known to the router.
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWritesWindow readYourWrites) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, readYourWrites));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.datasource.replica.stand-in.enabled", havingValue = "true")
+    public ReplicationStandIn replicationStandIn(@Qualifier("primaryDataSource") DataSource primary,
+                                                 @Qualifier("replicaDataSource") DataSource replica,
+                                                 @Value("${inventory.datasource.replica.stand-in.lag-ms:200}") long lagMillis) {
+        return new ReplicationStandIn(primary, replica, lagMillis);
+    }
+}
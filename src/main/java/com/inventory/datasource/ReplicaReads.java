@@ -0,0 +1,113 @@
+package com.inventory.datasource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks reads that may be served by the read replica.
+ * <p>
+ * Only reads run through {@link #read(Supplier)} are eligible: they run in a read-only transaction that
+ * {@link ReadWriteRoutingDataSource} sends to the replica, unless the calling client wrote recently.
+ * Every other read, including the ones that feed a write or load the item cache and in-memory indexes,
+ * stays on the primary, because it must see every committed change. Without a configured replica the
+ * reads simply run in a read-only transaction on the one database.
+ */
+@Component
+public class ReplicaReads {
+
+    private static final ThreadLocal<Boolean> ELIGIBLE = new ThreadLocal<>();
+    // Set while tracked(...) runs; flipped when a connection is routed to the replica
+    private static final ThreadLocal<boolean[]> REPLICA_USED = new ThreadLocal<>();
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectProvider<ReadYourWritesWindow> readYourWrites;
+
+    @Autowired
+    public ReplicaReads(PlatformTransactionManager transactionManager,
+                        ObjectProvider<ReadYourWritesWindow> readYourWrites) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readYourWrites = readYourWrites;
+    }
+
+    /**
+     * Runs the read in a read-only transaction that may be routed to the replica. The result can lag
+     * behind the primary by the replication delay.
+     */
+    public <T> T read(Supplier<T> read) {
+        Boolean previous = ELIGIBLE.get();
+        ELIGIBLE.set(Boolean.TRUE);
+        try {
+            return readOnlyTransaction.execute(status -> read.get());
+        } finally {
+            if (previous == null) {
+                ELIGIBLE.remove();
+            } else {
+                ELIGIBLE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs the supplier and reports whether any of its reads were served by the replica, e.g. so that
+     * a response that may lag behind the catalog revision is not tagged with it.
+     */
+    public static <T> Tracked<T> tracked(Supplier<T> supplier) {
+        boolean[] previous = REPLICA_USED.get();
+        boolean[] used = new boolean[1];
+        REPLICA_USED.set(used);
+        try {
+            T value = supplier.get();
+            return new Tracked<>(value, used[0]);
+        } finally {
+            if (previous == null) {
+                REPLICA_USED.remove();
+            } else {
+                REPLICA_USED.set(previous);
+                previous[0] |= used[0];
+            }
+        }
+    }
+
+    /**
+     * Whether the current client wrote recently, so that all its reads go to the primary. Such a client
+     * must not share a read with clients that may be served by the replica.
+     */
+    public boolean isPinnedToPrimary() {
+        ReadYourWritesWindow window = readYourWrites.getIfAvailable();
+        return window != null && window.isOpenForCurrentClient();
+    }
+
+    /**
+     * Returns the value of a read that may have run on another thread, such as a coalesced one, and records
+     * on the current thread whether it involved the replica, as if the current thread had read it.
+     */
+    public static <T> T replay(Tracked<T> tracked) {
+        if (tracked.fromReplica()) {
+            recordReplicaUse();
+        }
+        return tracked.value();
+    }
+
+    static boolean isEligible() {
+        return ELIGIBLE.get() != null;
+    }
+
+    static void recordReplicaUse() {
+        boolean[] used = REPLICA_USED.get();
+        if (used != null) {
+            used[0] = true;
+        }
+    }
+
+    /**
+     * A value and whether reading it involved the replica.
+     */
+    public record Tracked<T>(T value, boolean fromReplica) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.inventory.datasource;
+
+import com.inventory.event.InventoryChangeEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a local H2 replica in sync with the primary for development and tests, where no real database
+ * replication exists. It is not meant for production use.
+ * <p>
+ * Once the application has started, the primary is copied to the replica as a whole with H2's
+ * {@code SCRIPT} command. After that, every committed change is replicated row by row after
+ * {@code inventory.datasource.replica.stand-in.lag-ms}, which simulates replication delay: the row's
+ * current state is read from the primary and written to the replica, or deleted there if it is gone.
+ * Because the current state is copied rather than the change itself, changes may be applied in any
+ * order and more than once.
+ */
+public class ReplicationStandIn {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationStandIn.class);
+
+    private static final String COLUMNS = "id, version, name, description, price, stock_quantity, warehouse";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long lagMillis;
+    private final ScheduledExecutorService replication = Executors.newSingleThreadScheduledExecutor();
+
+    // Ids changed before the initial copy was taken, replicated right after it; null once it is done
+    private Set<Long> pending = new LinkedHashSet<>();
+
+    public ReplicationStandIn(DataSource primary, DataSource replica, long lagMillis) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.lagMillis = lagMillis;
+    }
+
+    /**
+     * Replaces the replica's contents with a copy of the primary. Runs after startup, when the schema
+     * exists and a restored snapshot has been loaded, but before the in-memory indexes load.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void copyPrimary() {
+        long startedAt = System.nanoTime();
+        List<String> script = primary.queryForList("SCRIPT", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+
+        Set<Long> changedMeanwhile;
+        synchronized (this) {
+            changedMeanwhile = pending;
+            pending = null;
+        }
+        changedMeanwhile.forEach(this::replicate);
+        log.info("Copied the primary database to the replica ({} statements) in {} ms", script.size(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEvent event) {
+        synchronized (this) {
+            if (pending != null) {
+                pending.add(event.id());
+                return;
+            }
+        }
+        replication.schedule(() -> replicate(event.id()), lagMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        replication.shutdownNow();
+    }
+
+    private void replicate(Long id) {
+        try {
+            List<Map<String, Object>> rows = primary.queryForList(
+                    "SELECT " + COLUMNS + " FROM inventory WHERE id = ?", id);
+            if (rows.isEmpty()) {
+                replica.update("DELETE FROM inventory WHERE id = ?", id);
+                return;
+            }
+            Map<String, Object> row = rows.get(0);
+            replica.update("MERGE INTO inventory (" + COLUMNS + ") KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    row.get("id"), row.get("version"), row.get("name"), row.get("description"), row.get("price"),
+                    row.get("stock_quantity"), row.get("warehouse"));
+        } catch (RuntimeException e) {
+            log.warn("Replicating inventory item {} failed", id, e);
+        }
+    }
+}
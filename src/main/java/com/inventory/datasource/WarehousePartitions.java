@@ -0,0 +1,212 @@
+package com.inventory.datasource;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Splits the inventory by warehouse across partitions, each a database of its own.
+ * <p>
+ * An item is stored in the partition its warehouse is assigned to in {@code inventory.partitioning.warehouses},
+ * and its id is allocated from that partition's
+ * id range, so the owning partition of an id is known without a lookup. Work on one item runs with
+ * its partition bound to the calling thread through {@link #call(int, Supplier)}; the transactions it
+ * starts use that partition's database (see {@link PartitioningConfig}). Queries over the whole
+ * catalog run on every partition in parallel through {@link #fanOut(IntFunction)} and are merged by
+ * the caller.
+ * <p>
+ * Without {@code inventory.partitioning.enabled} there is exactly one partition, binding it has no
+ * effect and fan-outs run on the calling thread.
+ */
+@Component
+public class WarehousePartitions {
+
+    /**
+     * Ids of partition p are allocated from {@code p * ID_RANGE + 1} up to {@code (p + 1) * ID_RANGE - 1}.
+     * 2^40 ids per partition leaves room for thousands of partitions below 2^53, the largest integer
+     * JavaScript clients read exactly.
+     */
+    public static final long ID_RANGE = 1L << 40;
+
+    private static final ThreadLocal<Integer> BOUND = new ThreadLocal<>();
+
+    private final int count;
+    private final Map<String, Integer> warehouses;
+    private final ExecutorService fanOutExecutor;
+
+    /**
+     * @throws IllegalArgumentException if a warehouse entry is malformed or names a partition that does not exist
+     */
+    @Autowired
+    public WarehousePartitions(@Value("${inventory.partitioning.enabled:false}") boolean enabled,
+                               @Value("${inventory.partitioning.urls:}") List<String> urls,
+                               @Value("${inventory.partitioning.warehouses:}") List<String> warehouses,
+                               @Value("${inventory.partitioning.fan-out-threads:16}") int fanOutThreads) {
+        this.count = enabled ? 1 + urls.size() : 1;
+        this.warehouses = enabled ? parseWarehouses(warehouses) : Map.of();
+        this.fanOutExecutor = count > 1 ? Executors.newFixedThreadPool(fanOutThreads) : null;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * The partition that stores the items of a warehouse: the one it is assigned to, or the first partition
+     * for items without a warehouse or of a warehouse that is not assigned. Placement depends on the
+     * assignment alone, so adding partitions moves no warehouse; all items of a warehouse, and so every
+     * name {@code upsertInventoryByName} matches within it, stay in one partition.
+     */
+    public int ofWarehouse(String warehouse) {
+        return warehouse == null ? 0 : warehouses.getOrDefault(warehouse, 0);
+    }
+
+    /**
+     * The partition that stores the item with the given id.
+     */
+    public int ofId(Long id) {
+        long partition = id / ID_RANGE;
+        // Ids outside every partition's range exist nowhere; looking them up in the first partition finds nothing
+        return partition > 0 && partition < count ? (int) partition : 0;
+    }
+
+    /**
+     * Groups keys, e.g. ids, by the partition they belong to, in partition order.
+     */
+    public <K> Map<Integer, List<K>> groupByPartition(Collection<K> keys, ToIntFunction<K> partitionOf) {
+        Map<Integer, List<K>> groups = new TreeMap<>();
+        for (K key : keys) {
+            groups.computeIfAbsent(partitionOf.applyAsInt(key), partition -> new ArrayList<>()).add(key);
+        }
+        return groups;
+    }
+
+    /**
+     * Runs the action with the partition bound to the calling thread, so that the transactions it starts
+     * use the partition's database.
+     *
+     * @throws IllegalStateException if the calling thread is in a transaction on another partition, which
+     *                               the action would silently join
+     */
+    public <T> T call(int partition, Supplier<T> action) {
+        if (count == 1) {
+            return action.get();
+        }
+        Integer previous = BOUND.get();
+        int current = previous == null ? 0 : previous;
+        if (current != partition && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot use partition " + partition
+                    + " inside a transaction on partition " + current);
+        }
+        BOUND.set(partition);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                BOUND.remove();
+            } else {
+                BOUND.set(previous);
+            }
+        }
+    }
+
+    public void run(int partition, Runnable action) {
+        call(partition, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the action on every partition in turn, each bound to the calling thread while it runs.
+     */
+    public void forEachPartition(IntConsumer action) {
+        for (int partition = 0; partition < count; partition++) {
+            int target = partition;
+            run(target, () -> action.accept(target));
+        }
+    }
+
+    /**
+     * Runs the query on every partition, in parallel when there are several, and waits for all of them.
+     *
+     * @param query receives the partition it runs on, which is bound to the thread running it
+     * @return the results in partition order
+     */
+    public <T> List<T> fanOut(IntFunction<T> query) {
+        if (count == 1) {
+            return Collections.singletonList(query.apply(0));
+        }
+        List<Future<T>> futures = new ArrayList<>(count);
+        for (int partition = 0; partition < count; partition++) {
+            int target = partition;
+            futures.add(fanOutExecutor.submit(() -> call(target, () -> query.apply(target))));
+        }
+        List<T> results = new ArrayList<>(count);
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for partition results", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Partition query failed", e.getCause());
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+
+    private Map<String, Integer> parseWarehouses(List<String> entries) {
+        Map<String, Integer> assigned = new HashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int equals = entry.lastIndexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Warehouse assignment '" + entry + "' must have the form warehouse=partition");
+            }
+            int partition = Integer.parseInt(entry.substring(equals + 1).trim());
+            if (partition < 0 || partition >= count) {
+                throw new IllegalArgumentException("Warehouse assignment '" + entry + "' must name a partition between 0 and "
+                        + (count - 1));
+            }
+            assigned.put(entry.substring(0, equals).trim(), partition);
+        }
+        return assigned;
+    }
+
+    static Integer bound() {
+        return BOUND.get();
+    }
+}
@@ -0,0 +1,35 @@
+package com.inventory.event;
+
+import com.inventory.model.Inventory;
+
+import java.math.BigDecimal;
+
+/**
+ * Published whenever an inventory row is created, updated or deleted. The event carries a snapshot
+ * of the item's state after the change (or before it, for deletions), so listeners never observe
+ * later modifications made to the entity instance. {@link Type#STOCK_ADJUSTED} events only carry the
+ * id, the new stock quantity and the new version.
+ * <p>
+ * After-commit listeners of concurrent transactions can run in either order, so listeners keeping
+ * derived state compare {@code version}, the row version the change produced, to skip events older
+ * than what they already applied.
+ */
+public record InventoryChangeEvent(Type type, Long id, String name, String description,
+                                   BigDecimal price, int stockQuantity, Long version) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        STOCK_ADJUSTED
+    }
+
+    public static InventoryChangeEvent of(Type type, Inventory item) {
+        return new InventoryChangeEvent(type, item.getId(), item.getName(), item.getDescription(),
+                item.getPrice(), item.getStockQuantity(), item.getVersion());
+    }
+
+    public static InventoryChangeEvent stockAdjusted(Long id, int stockQuantity, Long version) {
+        return new InventoryChangeEvent(Type.STOCK_ADJUSTED, id, null, null, null, stockQuantity, version);
+    }
+}
@@ -0,0 +1,39 @@
+package com.inventory.event;
+
+import com.inventory.model.Inventory;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA lifecycle callbacks that turn every write of an {@link Inventory} row into an
+ * {@link InventoryChangeEvent}. Hibernate obtains this listener from the Spring context, so the
+ * publisher is injected. Listeners that maintain derived state should use
+ * {@code @TransactionalEventListener(fallbackExecution = true)} so they only see committed changes.
+ */
+public class InventoryEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public InventoryEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void afterCreate(Inventory item) {
+        eventPublisher.publishEvent(InventoryChangeEvent.of(InventoryChangeEvent.Type.CREATED, item));
+    }
+
+    @PostUpdate
+    public void afterUpdate(Inventory item) {
+        eventPublisher.publishEvent(InventoryChangeEvent.of(InventoryChangeEvent.Type.UPDATED, item));
+    }
+
+    @PostRemove
+    public void afterDelete(Inventory item) {
+        eventPublisher.publishEvent(InventoryChangeEvent.of(InventoryChangeEvent.Type.DELETED, item));
+    }
+}
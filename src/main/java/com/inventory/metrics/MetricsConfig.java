@@ -0,0 +1,139 @@
+package com.inventory.metrics;
+
+import com.inventory.admission.ConcurrencyLimitFilter;
+import com.inventory.admission.RateLimitFilter;
+import com.inventory.Service.InventoryChangeFeed;
+import com.inventory.Service.InventoryItemCache;
+import com.inventory.Service.InventoryReadCoalescer;
+import com.inventory.concurrency.SingleFlight;
+import com.inventory.controller.CatalogListingCache;
+import com.inventory.model.CacheStats;
+import com.inventory.security.JWTUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+@Configuration
+public class MetricsConfig {
+
+    // Adds the row-count and slow-query interceptor to every Spring Data repository proxy.
+    // Static so that it is registered before the repository factory beans are created.
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${inventory.metrics.slow-query-threshold-ms:200}") long slowQueryThresholdMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(new RepositoryMetricsInterceptor(
+                                    meterRegistry.getObject(),
+                                    repositoryInformation.getRepositoryInterface().getSimpleName(),
+                                    Duration.ofMillis(slowQueryThresholdMillis)))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Publishes the item cache, catalog listing and verified-token cache counters
+    @Bean
+    public MeterBinder cacheMetrics(InventoryItemCache itemCache, CatalogListingCache listingCache, JWTUtil jwtUtil) {
+        return registry -> {
+            bindCacheStats(registry, "inventory.item", itemCache::getStats);
+            bindCacheStats(registry, "inventory.listing", listingCache::getStats);
+            bindCacheStats(registry, "jwt.verified-token", jwtUtil::getVerifiedTokenCacheStats);
+        };
+    }
+
+    // Publishes how many identical reads joined a read already in flight
+    @Bean
+    public MeterBinder readCoalescingMetrics(InventoryReadCoalescer readCoalescer) {
+        return registry -> {
+            bindSingleFlight(registry, "item-by-id", readCoalescer.itemById());
+            bindSingleFlight(registry, "search", readCoalescer.search());
+            bindSingleFlight(registry, "below-stock-threshold", readCoalescer.belowStockThreshold());
+        };
+    }
+
+    // Publishes connected change feed subscribers and how many were dropped for falling behind or stalling
+    @Bean
+    public MeterBinder changeFeedMetrics(InventoryChangeFeed changeFeed) {
+        return registry -> {
+            Gauge.builder("inventory.changes.subscribers", changeFeed, InventoryChangeFeed::getSubscriberCount)
+                    .description("Connected change feed subscribers")
+                    .register(registry);
+            FunctionCounter.builder("inventory.changes.resyncs", changeFeed, InventoryChangeFeed::getResyncs)
+                    .description("Change feed subscribers told to resync because changes they missed were overwritten")
+                    .register(registry);
+            FunctionCounter.builder("inventory.changes.stalled-drops", changeFeed, InventoryChangeFeed::getStalledDrops)
+                    .description("Change feed subscribers dropped because a delivery to them blocked past the send timeout")
+                    .register(registry);
+        };
+    }
+
+    // Publishes requests turned away by the rate limiter and the concurrency limiter, when they are enabled
+    @Bean
+    public MeterBinder admissionMetrics(ObjectProvider<RateLimitFilter> rateLimitFilter,
+                                        ObjectProvider<ConcurrencyLimitFilter> concurrencyLimitFilter) {
+        return registry -> {
+            rateLimitFilter.ifAvailable(filter -> {
+                FunctionCounter.builder("inventory.admission.rate-limited", filter, RateLimitFilter::getRejected)
+                        .description("Requests rejected with 429 because their client was over its rate limit")
+                        .register(registry);
+                Gauge.builder("inventory.admission.rate-limited.clients", filter, RateLimitFilter::getTrackedClients)
+                        .description("Clients with a rate limit bucket")
+                        .register(registry);
+            });
+            concurrencyLimitFilter.ifAvailable(filter -> {
+                FunctionCounter.builder("inventory.admission.shed", filter, ConcurrencyLimitFilter::getShed)
+                        .description("Requests shed with 503 because the concurrency limit was reached")
+                        .register(registry);
+                Gauge.builder("inventory.admission.in-flight", filter, ConcurrencyLimitFilter::getInFlight)
+                        .description("Requests holding a concurrency slot")
+                        .register(registry);
+            });
+        };
+    }
+
+    private static void bindSingleFlight(MeterRegistry registry, String operation, SingleFlight<?, ?> singleFlight) {
+        FunctionCounter.builder("inventory.reads", singleFlight, SingleFlight::getCalls)
+                .description("Coalescible reads requested")
+                .tag("operation", operation)
+                .register(registry);
+        FunctionCounter.builder("inventory.reads.collapsed", singleFlight, SingleFlight::getCollapsed)
+                .description("Reads that shared an identical read already in flight")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private static void bindCacheStats(MeterRegistry registry, String cacheName, Supplier<CacheStats> stats) {
+        counter(registry, cacheName, "hits", stats, CacheStats::hits);
+        counter(registry, cacheName, "misses", stats, CacheStats::misses);
+        counter(registry, cacheName, "evictions", stats, CacheStats::evictions);
+        counter(registry, cacheName, "expirations", stats, CacheStats::expirations);
+        counter(registry, cacheName, "invalidations", stats, CacheStats::invalidations);
+        Gauge.builder("inventory.cache.size", stats, s -> s.get().size())
+                .tag("cache", cacheName)
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String cacheName, String result,
+                                Supplier<CacheStats> stats, ToDoubleFunction<CacheStats> value) {
+        FunctionCounter.builder("inventory.cache." + result, stats, s -> value.applyAsDouble(s.get()))
+                .tag("cache", cacheName)
+                .register(registry);
+    }
+}
@@ -0,0 +1,85 @@
+package com.inventory.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Wraps every repository method call to record how many rows it returned and to log calls
+ * that take longer than the slow-query threshold. Call latency itself is recorded by Spring Boot
+ * as {@code spring.data.repository.invocations}.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RepositoryMetricsInterceptor.class);
+
+    private static final int MAX_LOGGED_ARGUMENT_LENGTH = 200;
+
+    private final MeterRegistry meterRegistry;
+    private final String repositoryName;
+    private final Duration slowQueryThreshold;
+
+    public RepositoryMetricsInterceptor(MeterRegistry meterRegistry, String repositoryName, Duration slowQueryThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.repositoryName = repositoryName;
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result = invocation.proceed();
+        long elapsedNanos = System.nanoTime() - start;
+
+        String method = invocation.getMethod().getName();
+        Integer rows = countRows(result);
+        if (rows != null) {
+            DistributionSummary.builder("inventory.repository.rows")
+                    .description("Rows returned per repository call")
+                    .tag("repository", repositoryName)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+
+        if (elapsedNanos > slowQueryThreshold.toNanos()) {
+            log.warn("Slow repository call {}.{} took {} ms and returned {} rows, arguments {}",
+                    repositoryName, method, elapsedNanos / 1_000_000, rows == null ? "n/a" : rows,
+                    abbreviate(Arrays.toString(invocation.getArguments())));
+        }
+        return result;
+    }
+
+    // Null when the result is not a set of rows, e.g. a count or a lazily consumed stream
+    private static Integer countRows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof java.util.stream.BaseStream<?, ?>) {
+            return null;
+        }
+        return 1;
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() <= MAX_LOGGED_ARGUMENT_LENGTH ? text : text.substring(0, MAX_LOGGED_ARGUMENT_LENGTH) + "...";
+    }
+}
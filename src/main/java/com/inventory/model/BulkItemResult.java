@@ -0,0 +1,52 @@
+package com.inventory.model;
+
+/**
+ * Outcome of a single item within a bulk create or update request.
+ * {@code index} is the item's position in the submitted array.
+ */
+public class BulkItemResult {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        NOT_FOUND,
+        REJECTED,
+        FAILED
+    }
+
+    private final int index;
+    private final Long id;
+    private final Status status;
+    private final String error;
+
+    public BulkItemResult(int index, Long id, Status status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BulkItemResult success(int index, Long id, Status status) {
+        return new BulkItemResult(index, id, status, null);
+    }
+
+    public static BulkItemResult failure(int index, Long id, Status status, String error) {
+        return new BulkItemResult(index, id, status, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,13 @@
+package com.inventory.model;
+
+/**
+ * Point-in-time counters of an in-memory cache.
+ */
+public record CacheStats(long size, long maxSize, long hits, long misses, long evictions,
+                         long expirations, long invalidations) {
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,12 @@
+package com.inventory.model;
+
+import java.util.List;
+
+/**
+ * Progress of a CSV import, reported after every written batch. Counters are running totals;
+ * {@code errors} lists the rejected or failed rows of the latest batch only, with the CSV record
+ * number (the header being record 1) as their index. The last report has {@code done} set.
+ */
+public record ImportProgress(long rowsProcessed, long created, long updated, long rejected, long failed,
+                             List<BulkItemResult> errors, boolean done) {
+}
@@ -1,22 +1,38 @@
 package com.inventory.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.inventory.event.InventoryEntityListener;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.util.Objects;
 
 @Entity
-@Table(name = "inventory")
+@EntityListeners(InventoryEntityListener.class)
+@Table(name = "inventory", indexes = {
+        // Composite (sortKey, id) indexes let keyset pagination seek instead of scan
+        @Index(name = "idx_inventory_name_id", columnList = "name, id"),
+        @Index(name = "idx_inventory_price_id", columnList = "price, id"),
+        @Index(name = "idx_inventory_stock_id", columnList = "stockQuantity, id")
+})
 public class Inventory {
 
+    // Sequence ids are allocated in blocks ahead of the INSERT, which lets Hibernate batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_seq")
+    @SequenceGenerator(name = "inventory_seq", sequenceName = "inventory_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String description;
     @Column(precision = 38, scale = 2)
     private BigDecimal price;
     private int stockQuantity;
-
+    // Where the stock is held. Set when the item is created and kept by updates; with warehouse
+    // partitioning enabled, it decides which partition stores the item
+    private String warehouse;
+    // Incremented on every update; used for optimistic locking and as the item's ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 
     public Inventory() {
     }
@@ -28,6 +44,23 @@ public class Inventory {
         this.stockQuantity = stockQuantity;
     }
 
+    // Rebuilds an item that was previously read from the database, e.g. from a cached copy
+    public Inventory(Long id, String name, String description, BigDecimal price, int stockQuantity) {
+        this(id, null, name, description, price, stockQuantity);
+    }
+
+    public Inventory(Long id, Long version, String name, String description, BigDecimal price, int stockQuantity) {
+        this(id, version, name, description, price, stockQuantity, null);
+    }
+
+    public Inventory(Long id, Long version, String name, String description, BigDecimal price, int stockQuantity,
+                     String warehouse) {
+        this(name, description, price, stockQuantity);
+        this.id = id;
+        this.version = version;
+        this.warehouse = warehouse;
+    }
+
     // Getters and Setters
 
     public Long getId() {
@@ -66,6 +99,18 @@ public class Inventory {
         this.stockQuantity = stockQuantity;
     }
 
+    public String getWarehouse() {
+        return warehouse;
+    }
+
+    public void setWarehouse(String warehouse) {
+        this.warehouse = warehouse;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -74,12 +119,13 @@ public class Inventory {
         return Objects.equals(name, inventory.name) &&
                 Objects.equals(description, inventory.description) &&
                 Objects.equals(price, inventory.price) &&
-                stockQuantity == inventory.stockQuantity;
+                stockQuantity == inventory.stockQuantity &&
+                Objects.equals(warehouse, inventory.warehouse);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, description, price, stockQuantity);
+        return Objects.hash(name, description, price, stockQuantity, warehouse);
     }
 
 }
@@ -0,0 +1,10 @@
+package com.inventory.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Catalog-wide totals: number of items, items out of stock, units in stock, and stock value
+ * (the sum of price times stock quantity).
+ */
+public record InventoryAggregates(long itemCount, long outOfStockCount, long totalUnits, BigDecimal totalValue) {
+}
@@ -0,0 +1,19 @@
+package com.inventory.model;
+
+import com.inventory.event.InventoryChangeEvent;
+
+import java.math.BigDecimal;
+
+/**
+ * One committed inventory mutation as published on the change feed. Sequence numbers increase by one
+ * per change in commit order. Deletions carry the item's last state; stock adjustments only carry the
+ * id and the new stock quantity.
+ */
+public record InventoryChange(long sequence, InventoryChangeEvent.Type type, Long id, String name,
+                              String description, BigDecimal price, int stockQuantity) {
+
+    public static InventoryChange of(long sequence, InventoryChangeEvent event) {
+        return new InventoryChange(sequence, event.type(), event.id(), event.name(), event.description(),
+                event.price(), event.stockQuantity());
+    }
+}
@@ -0,0 +1,19 @@
+package com.inventory.model;
+
+public class StockLevel {
+    private final Long id;
+    private final int stockQuantity;
+
+    public StockLevel(Long id, int stockQuantity) {
+        this.id = id;
+        this.stockQuantity = stockQuantity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public int getStockQuantity() {
+        return stockQuantity;
+    }
+}
@@ -0,0 +1,14 @@
+package com.inventory.model;
+
+/**
+ * Notification that an item's stock moved across a subscribed low-stock threshold.
+ * A newly created item that starts below the threshold is reported as {@link Direction#BELOW}.
+ */
+public record StockThresholdCrossing(Long itemId, int threshold, Integer previousQuantity, int stockQuantity,
+                                     Direction direction) {
+
+    public enum Direction {
+        BELOW,
+        RECOVERED
+    }
+}
@@ -1,14 +1,21 @@
 package com.inventory.repository;
 
 import com.inventory.model.Inventory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryRepositoryCustom {
     // This interface will inherit all the CRUD methods like save(), findById(), findAll(), etc.
 
     // Custom search query to search by name or description
@@ -18,4 +25,48 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
 
     @Query("SELECT i FROM Inventory i WHERE i.stockQuantity < :threshold")
     List<Inventory> findByStockQuantityLessThan(int threshold);
-}
\ No newline at end of file
+
+    // Items carrying any of the names, oldest first; served by the (name, id) index
+    List<Inventory> findByNameInOrderByIdAsc(Collection<String> names);
+
+    // Catalog totals in a single row: item count, out-of-stock count, units, and stock value
+    @Query("SELECT COUNT(i), SUM(CASE WHEN i.stockQuantity <= 0 THEN 1 ELSE 0 END), SUM(i.stockQuantity), "
+            + "SUM(i.price * i.stockQuantity) FROM Inventory i")
+    List<Object[]> aggregateTotals();
+
+    // Forward-only cursor over the whole table, fetched from the driver in batches.
+    // Must be consumed inside a transaction and closed afterwards.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Inventory i ORDER BY i.id")
+    Stream<Inventory> streamAll();
+
+    // Atomically applies a stock delta unless it would drive the quantity below zero, and returns the new
+    // quantity and version from the same statement (H2 data change delta table). Empty if the id is unknown or
+    // stock is short. The version is bumped like any other update so that ETags and optimistic locks see the change.
+    @Transactional
+    @Query(value = "SELECT stock_quantity AS \"stockQuantity\", version AS \"version\" FROM FINAL TABLE ("
+            + "UPDATE inventory SET stock_quantity = stock_quantity + :delta, version = version + 1 "
+            + "WHERE id = :id AND stock_quantity + :delta >= 0)", nativeQuery = true)
+    Optional<StockChange> adjustStock(Long id, int delta);
+
+    // Applies a stock delta that was already checked against the in-memory hot-stock counters and returns the
+    // new quantity and version. Empty if the item no longer exists.
+    @Transactional
+    @Query(value = "SELECT stock_quantity AS \"stockQuantity\", version AS \"version\" FROM FINAL TABLE ("
+            + "UPDATE inventory SET stock_quantity = stock_quantity + :delta, version = version + 1 "
+            + "WHERE id = :id)", nativeQuery = true)
+    Optional<StockChange> applyStockDelta(Long id, int delta);
+
+    /**
+     * The row state written by a stock adjustment.
+     */
+    interface StockChange {
+
+        int getStockQuantity();
+
+        long getVersion();
+    }
+}
@@ -0,0 +1,61 @@
+package com.inventory.repository;
+
+import com.inventory.model.Inventory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Queries that cannot be expressed as derived or @Query methods, implemented in InventoryRepositoryImpl
+public interface InventoryRepositoryCustom {
+
+    // Attributes that can be requested in a projection; id is always included
+    Set<String> PROJECTABLE_FIELDS = Set.of("id", "name", "description", "price", "stockQuantity", "warehouse",
+            "version");
+
+    /**
+     * Fetches the page that follows the given (sortKey, id) position using a keyset predicate,
+     * so the database seeks straight to the position instead of skipping over earlier rows.
+     *
+     * @param sortBy    the attribute to sort by, one of name, price, stockQuantity or id
+     * @param direction the sort direction, applied to both the sort key and the id tie-breaker
+     * @param lastValue the sort key value of the last item already seen, may be null
+     * @param lastId    the id of the last item already seen, or null to start from the beginning
+     * @param limit     the maximum number of items to return
+     * @return the items following the given position, in sort order
+     */
+    List<Inventory> findPageAfter(String sortBy, Sort.Direction direction, Object lastValue, Long lastId, int limit);
+
+    /**
+     * Reads only the given attributes of every item, without loading entities.
+     *
+     * @param fields attributes to select, from {@link #PROJECTABLE_FIELDS}
+     * @param sort   the order of the rows
+     * @return one map per item from attribute name to value, with keys in the order requested and id first
+     */
+    List<Map<String, Object>> findAllProjected(List<String> fields, Sort sort);
+
+    /**
+     * Reads one page of the given attributes, without loading entities.
+     */
+    Page<Map<String, Object>> findAllProjected(List<String> fields, Pageable pageable);
+
+    /**
+     * Reads the given attributes of the items with the given ids, in no particular order.
+     */
+    List<Map<String, Object>> findAllByIdProjected(Collection<Long> ids, List<String> fields);
+
+    /**
+     * Reads the given attributes of items whose name or description contains the keyword.
+     */
+    List<Map<String, Object>> searchProjected(String keyword, List<String> fields, int limit);
+
+    /**
+     * Reads the given attributes of items whose stock is below the threshold, lowest stock first.
+     */
+    List<Map<String, Object>> findByStockQuantityLessThanProjected(int threshold, List<String> fields);
+}
@@ -0,0 +1,158 @@
+package com.inventory.repository;
+
+import com.inventory.model.Inventory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+public class InventoryRepositoryImpl implements InventoryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Inventory> findPageAfter(String sortBy, Sort.Direction direction, Object lastValue, Long lastId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Inventory> query = cb.createQuery(Inventory.class);
+        Root<Inventory> root = query.from(Inventory.class);
+
+        Path<Long> id = root.get("id");
+        Path<Comparable<Object>> key = root.get(sortBy);
+        boolean ascending = direction.isAscending();
+
+        if (lastId != null) {
+            query.where(sortBy.equals("id")
+                    ? after(cb, id, lastId, ascending)
+                    : keysetPredicate(cb, key, id, lastValue, lastId, ascending));
+        }
+
+        if (sortBy.equals("id")) {
+            query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            query.orderBy(ascending ? cb.asc(key) : cb.desc(key), ascending ? cb.asc(id) : cb.desc(id));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Rows strictly after (lastValue, lastId) in the given direction. Nulls sort lowest, matching H2's default ordering.
+    @SuppressWarnings("unchecked")
+    private Predicate keysetPredicate(CriteriaBuilder cb, Path<Comparable<Object>> key, Path<Long> id,
+                                      Object lastValue, Long lastId, boolean ascending) {
+        Predicate sameKeyLaterId;
+        if (lastValue == null) {
+            sameKeyLaterId = cb.and(cb.isNull(key), after(cb, id, lastId, ascending));
+            return ascending ? cb.or(sameKeyLaterId, cb.isNotNull(key)) : sameKeyLaterId;
+        }
+
+        Comparable<Object> value = (Comparable<Object>) lastValue;
+        sameKeyLaterId = cb.and(cb.equal(key, value), after(cb, id, lastId, ascending));
+        if (ascending) {
+            return cb.or(cb.greaterThan(key, value), sameKeyLaterId);
+        }
+        return cb.or(cb.lessThan(key, value), sameKeyLaterId, cb.isNull(key));
+    }
+
+    private Predicate after(CriteriaBuilder cb, Path<Long> id, Long lastId, boolean ascending) {
+        return ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+    }
+
+    @Override
+    public List<Map<String, Object>> findAllProjected(List<String> fields, Sort sort) {
+        return project(fields, null, sort, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findAllProjected(List<String> fields, Pageable pageable) {
+        List<Map<String, Object>> content =
+                project(fields, null, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        count.select(cb.count(count.from(Inventory.class)));
+        return new PageImpl<>(content, pageable, entityManager.createQuery(count).getSingleResult());
+    }
+
+    @Override
+    public List<Map<String, Object>> findAllByIdProjected(Collection<Long> ids, List<String> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return project(fields, (cb, root) -> root.get("id").in(ids), Sort.unsorted(), 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Map<String, Object>> searchProjected(String keyword, List<String> fields, int limit) {
+        String pattern = "%" + keyword + "%";
+        return project(fields, (cb, root) -> cb.or(cb.like(root.get("name"), pattern), cb.like(root.get("description"), pattern)),
+                Sort.unsorted(), 0, limit);
+    }
+
+    @Override
+    public List<Map<String, Object>> findByStockQuantityLessThanProjected(int threshold, List<String> fields) {
+        return project(fields, (cb, root) -> cb.lessThan(root.get("stockQuantity"), threshold),
+                Sort.by("stockQuantity", "id"), 0, Integer.MAX_VALUE);
+    }
+
+    // Selects only the requested attributes as a tuple query, so no entity is built and no other column is read
+    private List<Map<String, Object>> project(List<String> fields, BiFunction<CriteriaBuilder, Root<Inventory>, Predicate> where,
+                                              Sort sort, long offset, int limit) {
+        Set<String> selected = withId(fields);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Inventory> root = query.from(Inventory.class);
+
+        List<Selection<?>> selections = selected.stream()
+                .<Selection<?>>map(field -> root.get(field).alias(field))
+                .toList();
+        query.multiselect(selections);
+        if (where != null) {
+            query.where(where.apply(cb, root));
+        }
+        query.orderBy(sort.stream()
+                .map(order -> order.isAscending() ? cb.asc(root.get(order.getProperty())) : cb.desc(root.get(order.getProperty())))
+                .toList());
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit);
+        return typedQuery.getResultList().stream()
+                .map(tuple -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (String field : selected) {
+                        row.put(field, tuple.get(field));
+                    }
+                    return row;
+                })
+                .toList();
+    }
+
+    private static Set<String> withId(List<String> fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        selected.addAll(fields);
+        return selected;
+    }
+}
@@ -1,5 +1,6 @@
 package com.inventory.security;
 
+import com.inventory.model.CacheStats;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,4 +25,10 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
         }
     }
+
+    // Hit rate and size of the cache of already-verified tokens
+    @GetMapping("/token-cache/stats")
+    public ResponseEntity<CacheStats> getVerifiedTokenCacheStats() {
+        return ResponseEntity.ok(jwtUtil.getVerifiedTokenCacheStats());
+    }
 }
@@ -0,0 +1,39 @@
+package com.inventory.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Identifies the client behind a request, for per-client bookkeeping such as rate limits: the subject
+ * of a valid bearer token issued by {@link AuthController}, or else the remote address. Tokens are
+ * checked through {@link JWTUtil}'s verified-token cache, so repeated requests do not repeat the
+ * signature check.
+ */
+@Component
+public class ClientKeys {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JWTUtil jwtUtil;
+
+    @Autowired
+    public ClientKeys(JWTUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    /**
+     * @return {@code user:<subject>} for a request with a valid token, otherwise {@code address:<remote address>}
+     */
+    public String of(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            String subject = jwtUtil.getSubject(authorization.substring(BEARER_PREFIX.length())).orElse(null);
+            if (subject != null) {
+                return "user:" + subject;
+            }
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+}
@@ -1,26 +1,72 @@
 package com.inventory.security;
 
+import com.inventory.model.CacheStats;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
 public class JWTUtil {
 
+    private static final int DEFAULT_VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+
     private final Key secretKey;
     private final int tokenValidity;
 
+    // Parsers are immutable and thread-safe, so one instance serves every request
+    private final JwtParser parser;
+
+    // SHA-256 of the token -> claims that already passed signature verification, least recently used first.
+    // Guarded by itself; lookups reorder an access-ordered map, so reads take the lock too.
+    private final LinkedHashMap<String, VerifiedToken> verifiedTokens;
+    private final int verifiedTokenCacheSize;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder cacheEvictions = new LongAdder();
+    private final LongAdder cacheExpirations = new LongAdder();
+
     // Constructor that generates a secure key
     public JWTUtil(String secretKey, int tokenValidity) {
+        this(secretKey, tokenValidity, DEFAULT_VERIFIED_TOKEN_CACHE_SIZE);
+    }
+
+    @Autowired
+    public JWTUtil(@Value("${jwt.secret}") String secretKey,
+                   @Value("${jwt.token-validity-ms}") int tokenValidity,
+                   @Value("${jwt.verified-token-cache.max-size:" + DEFAULT_VERIFIED_TOKEN_CACHE_SIZE + "}") int verifiedTokenCacheSize) {
         // Use the Keys class to generate a secure key based on the secret
         this.secretKey = Keys.hmacShaKeyFor(secretKey.getBytes());
         this.tokenValidity = tokenValidity;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(this.secretKey)
+                .build();
+        this.verifiedTokenCacheSize = verifiedTokenCacheSize;
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                if (size() > verifiedTokenCacheSize) {
+                    cacheEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
     }
 
     /**
@@ -42,17 +88,89 @@ public class JWTUtil {
 
     /**
      * Validates the JWT token by checking its claims and ensuring it is not expired.
+     * Tokens that were verified before are answered from the verified-token cache
+     * without repeating the signature check.
      *
      * @param token the JWT token to validate
      * @param username the username to compare with the token's subject
      * @return true if the token is valid and not expired, false otherwise
      */
     public boolean isTokenValid(String token, String username) {
-        Optional<Claims> claims = extractClaimsFromToken(token);
-        return claims.map(c -> username.equals(c.getSubject()) && !isTokenExpired(c))
+        return verify(token)
+                .map(verified -> username.equals(verified.subject()))
                 .orElse(false);
     }
 
+    /**
+     * Returns the subject of a valid token, using the verified-token cache like {@link #isTokenValid}.
+     *
+     * @param token the JWT token
+     * @return the subject, or empty if the token is invalid or expired
+     */
+    public Optional<String> getSubject(String token) {
+        return verify(token).map(VerifiedToken::subject);
+    }
+
+    /**
+     * Returns hit, miss and eviction counters of the verified-token cache.
+     */
+    public CacheStats getVerifiedTokenCacheStats() {
+        int size;
+        synchronized (verifiedTokens) {
+            size = verifiedTokens.size();
+        }
+        return new CacheStats(size, verifiedTokenCacheSize, cacheHits.sum(), cacheMisses.sum(),
+                cacheEvictions.sum(), cacheExpirations.sum(), 0);
+    }
+
+    /**
+     * Looks the token up in the verified-token cache, falling back to full parsing and
+     * signature verification on a miss. Entries are dropped once the token expires, and the least
+     * recently used one makes room when the cache is full.
+     *
+     * @param token the JWT token to verify
+     * @return the verified subject and expiry, or empty if the token is invalid or expired
+     */
+    private Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String key = hash(token);
+        VerifiedToken cached;
+        synchronized (verifiedTokens) {
+            cached = verifiedTokens.get(key);
+            if (cached != null && cached.isExpired()) {
+                verifiedTokens.remove(key);
+            }
+        }
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                cacheHits.increment();
+                return Optional.of(cached);
+            }
+            cacheExpirations.increment();
+            return Optional.empty();
+        }
+
+        cacheMisses.increment();
+        Optional<VerifiedToken> verified = extractClaimsFromToken(token)
+                .filter(claims -> !isTokenExpired(claims))
+                .map(claims -> new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime()));
+        verified.ifPresent(v -> cache(key, v));
+        return verified;
+    }
+
+    private void cache(String key, VerifiedToken verified) {
+        if (verifiedTokenCacheSize <= 0) {
+            return;
+        }
+        // Signature checks run outside the lock; only the map update is serialized
+        synchronized (verifiedTokens) {
+            verifiedTokens.put(key, verified);
+        }
+    }
+
     /**
      * Extracts all claims from the given JWT token.
      *
@@ -61,11 +179,7 @@ public class JWTUtil {
      */
     private Optional<Claims> extractClaimsFromToken(String token) {
         try {
-            return Optional.of(Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody());
+            return Optional.of(parser.parseClaimsJws(token).getBody());
         } catch (Exception e) {
             // In case of parsing issues, return an empty Optional
             return Optional.empty();
@@ -82,5 +196,20 @@ public class JWTUtil {
         return claims.getExpiration().before(new Date());
     }
 
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record VerifiedToken(String subject, long expiresAtMillis) {
+
+        boolean isExpired() {
+            return expiresAtMillis <= System.currentTimeMillis();
+        }
+    }
 
 }
@@ -0,0 +1,203 @@
+package com.inventory.snapshot;
+
+import com.inventory.model.Inventory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of the inventory table.
+ * <p>
+ * Layout: the magic {@code INVS} and a format version, then one record per item (a marker byte,
+ * id, version, name, description, price as scale plus unscaled bytes, stock quantity, warehouse; nullable
+ * values are preceded by a presence flag), then an end marker followed by the record count and a CRC32 of
+ * everything before it. Files are written and read strictly sequentially through large buffers.
+ */
+public final class InventorySnapshotFile {
+
+    private static final int MAGIC = 0x494E5653; // "INVS"
+    private static final int FORMAT_VERSION = 2;
+    // Version 1 records end with the stock quantity; they are read with no warehouse
+    private static final int FORMAT_VERSION_WITHOUT_WAREHOUSE = 1;
+    private static final byte RECORD = 1;
+    private static final byte END = 0;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private InventorySnapshotFile() {
+    }
+
+    /**
+     * Writes a snapshot to a temporary file next to the target, which replaces the target only once the
+     * snapshot is complete and on disk; a crash mid-write leaves the previous snapshot in place.
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final CRC32 checksum = new CRC32();
+        private final DataOutputStream out;
+        private long count;
+        private boolean committed;
+
+        public Writer(Path target) throws IOException {
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            this.target = target;
+            this.temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            this.channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), checksum));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+        }
+
+        public void write(Inventory item) throws IOException {
+            out.writeByte(RECORD);
+            out.writeLong(item.getId());
+            writeNullableLong(item.getVersion());
+            writeNullableString(item.getName());
+            writeNullableString(item.getDescription());
+            BigDecimal price = item.getPrice();
+            out.writeBoolean(price != null);
+            if (price != null) {
+                byte[] unscaled = price.unscaledValue().toByteArray();
+                out.writeInt(price.scale());
+                out.writeByte(unscaled.length);
+                out.write(unscaled);
+            }
+            out.writeInt(item.getStockQuantity());
+            writeNullableString(item.getWarehouse());
+            count++;
+        }
+
+        /**
+         * Completes the file and moves it over the target.
+         *
+         * @return the number of items written
+         */
+        public long commit() throws IOException {
+            out.writeByte(END);
+            out.writeLong(count);
+            out.flush();
+            // The checksum covers everything up to here and is written outside the checked stream
+            long crc = checksum.getValue();
+            OutputStream raw = Channels.newOutputStream(channel);
+            new DataOutputStream(raw).writeLong(crc);
+            channel.force(true);
+            channel.close();
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            committed = true;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+        private void writeNullableLong(Long value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeLong(value);
+            }
+        }
+
+        // writeUTF is limited to 64 KiB of encoded text, which the 255-character columns never reach
+        private void writeNullableString(String value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot record by record. The count and checksum are verified when the end marker is
+     * reached, so a caller must read to the end before trusting what it has read.
+     */
+    public static final class Reader implements Closeable {
+
+        private final CRC32 checksum = new CRC32();
+        private final DataInputStream raw;
+        private final DataInputStream in;
+        private final int formatVersion;
+        private long count;
+
+        public Reader(Path source) throws IOException {
+            this.raw = new DataInputStream(new BufferedInputStream(Files.newInputStream(source), BUFFER_SIZE));
+            this.in = new DataInputStream(new CheckedInputStream(raw, checksum));
+            if (in.readInt() != MAGIC) {
+                throw new IOException(source + " is not an inventory snapshot");
+            }
+            formatVersion = in.readInt();
+            if (formatVersion != FORMAT_VERSION && formatVersion != FORMAT_VERSION_WITHOUT_WAREHOUSE) {
+                throw new IOException(source + " has unsupported snapshot format version " + formatVersion);
+            }
+        }
+
+        /**
+         * @return the next item, or null after the last one once the file has been verified
+         * @throws IOException if the file is truncated or corrupted
+         */
+        public Inventory next() throws IOException {
+            byte marker = in.readByte();
+            if (marker == END) {
+                long expectedCount = in.readLong();
+                long expectedChecksum = checksum.getValue();
+                if (expectedCount != count || raw.readLong() != expectedChecksum) {
+                    throw new IOException("Inventory snapshot is corrupted: count or checksum mismatch");
+                }
+                return null;
+            }
+            if (marker != RECORD) {
+                throw new IOException("Inventory snapshot is corrupted: unexpected marker " + marker);
+            }
+
+            long id = in.readLong();
+            Long version = in.readBoolean() ? in.readLong() : null;
+            String name = in.readBoolean() ? in.readUTF() : null;
+            String description = in.readBoolean() ? in.readUTF() : null;
+            BigDecimal price = null;
+            if (in.readBoolean()) {
+                int scale = in.readInt();
+                byte[] unscaled = new byte[in.readUnsignedByte()];
+                in.readFully(unscaled);
+                price = new BigDecimal(new BigInteger(unscaled), scale);
+            }
+            int stockQuantity = in.readInt();
+            String warehouse = formatVersion != FORMAT_VERSION_WITHOUT_WAREHOUSE && in.readBoolean() ? in.readUTF() : null;
+            count++;
+            return new Inventory(id, version, name, description, price, stockQuantity, warehouse);
+        }
+
+        @Override
+        public void close() throws IOException {
+            raw.close();
+        }
+    }
+}
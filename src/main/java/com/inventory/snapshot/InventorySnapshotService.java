@@ -0,0 +1,195 @@
+package com.inventory.snapshot;
+
+import com.inventory.Service.CatalogRevision;
+import com.inventory.Service.HotStockCounters;
+import com.inventory.model.Inventory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps a binary snapshot of the inventory table on local disk so that a restart with the in-memory
+ * database comes back fully populated.
+ * <p>
+ * The snapshot is restored once all beans are initialized, before the web server accepts requests and
+ * before the in-memory indexes load on application ready, using batched JDBC inserts rather than entity
+ * persists. Restoring only happens into an empty table. Afterwards the table is written out again every
+ * {@code inventory.snapshot.interval-ms} if anything changed, and once more on shutdown.
+ */
+@Component
+public class InventorySnapshotService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(InventorySnapshotService.class);
+
+    private static final int INSERT_BATCH_SIZE = 1_000;
+    private static final int FETCH_SIZE = 1_000;
+    // Matches the allocationSize of the id sequence; restarting beyond the highest id plus one block keeps
+    // every id the pooled optimizer hands out above the restored ones
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogRevision catalogRevision;
+    private final HotStockCounters hotStock;
+    private final boolean enabled;
+    private final Path path;
+
+    // Catalog revision captured by the last snapshot written or restored
+    private volatile String snapshotRevision;
+
+    @Autowired
+    public InventorySnapshotService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                    CatalogRevision catalogRevision, HotStockCounters hotStock,
+                                    @Value("${inventory.snapshot.enabled:false}") boolean enabled,
+                                    @Value("${inventory.snapshot.path:data/inventory.snapshot}") Path path) {
+        // A template of our own, so the fetch size does not leak into other users of the shared one
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogRevision = catalogRevision;
+        this.hotStock = hotStock;
+        this.enabled = enabled;
+        this.path = path;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            restore();
+        }
+    }
+
+    /**
+     * Loads the snapshot file into the inventory table if the file exists and the table is empty.
+     * A corrupted file is rolled back entirely and the application starts empty.
+     *
+     * @return the number of items restored
+     */
+    public long restore() {
+        if (!Files.exists(path)) {
+            log.info("No inventory snapshot at {}, starting empty", path);
+            return 0;
+        }
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventory", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Inventory table already holds {} items, not restoring the snapshot", existing);
+            return 0;
+        }
+
+        long startedAt = System.nanoTime();
+        Restored restored;
+        try {
+            restored = transactionTemplate.execute(status -> insertAll());
+        } catch (UncheckedIOException e) {
+            log.warn("Could not restore inventory snapshot {}, starting empty", path, e);
+            return 0;
+        }
+        // DDL commits on its own, so the sequence is moved after the rows are in
+        jdbcTemplate.execute("ALTER SEQUENCE inventory_seq RESTART WITH " + (restored.maxId() + ID_ALLOCATION_SIZE + 1));
+        snapshotRevision = catalogRevision.current();
+        log.info("Restored {} inventory items from {} in {} ms", restored.count(), path,
+                (System.nanoTime() - startedAt) / 1_000_000);
+        return restored.count();
+    }
+
+    /**
+     * Writes the inventory table to the snapshot file unless nothing changed since the last snapshot.
+     *
+     * @return the number of items written, or -1 if the snapshot was already current
+     */
+    @Scheduled(fixedDelayString = "${inventory.snapshot.interval-ms:60000}",
+            initialDelayString = "${inventory.snapshot.interval-ms:60000}")
+    public synchronized long snapshot() {
+        if (!enabled) {
+            return -1;
+        }
+        // Stock of hot items only reaches the table when flushed
+        hotStock.flush();
+        String revision = catalogRevision.current();
+        if (revision.equals(snapshotRevision)) {
+            return -1;
+        }
+
+        long startedAt = System.nanoTime();
+        try (InventorySnapshotFile.Writer writer = new InventorySnapshotFile.Writer(path)) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                    "SELECT id, version, name, description, price, stock_quantity, warehouse FROM inventory ORDER BY id",
+                    resultSet -> {
+                        try {
+                            long version = resultSet.getLong(2);
+                            writer.write(new Inventory(resultSet.getLong(1), resultSet.wasNull() ? null : version,
+                                    resultSet.getString(3), resultSet.getString(4), resultSet.getBigDecimal(5),
+                                    resultSet.getInt(6), resultSet.getString(7)));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+            long count = writer.commit();
+            snapshotRevision = revision;
+            log.debug("Wrote {} inventory items to {} in {} ms", count, path, (System.nanoTime() - startedAt) / 1_000_000);
+            return count;
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Writing inventory snapshot {} failed, keeping the previous one", path, e);
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    // Inserts every item of the file in JDBC batches
+    private Restored insertAll() {
+        long count = 0;
+        long maxId = 0;
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        try (InventorySnapshotFile.Reader reader = new InventorySnapshotFile.Reader(path)) {
+            for (Inventory item = reader.next(); item != null; item = reader.next()) {
+                batch.add(new Object[]{item.getId(), item.getVersion(), item.getName(), item.getDescription(),
+                        item.getPrice(), item.getStockQuantity(), item.getWarehouse()});
+                maxId = Math.max(maxId, item.getId());
+                count++;
+                if (batch.size() == INSERT_BATCH_SIZE) {
+                    insert(batch);
+                }
+            }
+            insert(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Restored(count, maxId);
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO inventory (id, version, name, description, price, stock_quantity, warehouse) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                batch, new int[]{Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.NUMERIC, Types.INTEGER,
+                        Types.VARCHAR});
+        batch.clear();
+    }
+
+    private record Restored(long count, long maxId) {
+    }
+}
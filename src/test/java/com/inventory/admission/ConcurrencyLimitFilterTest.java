@@ -0,0 +1,60 @@
+package com.inventory.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitFilterTest {
+
+    @Test
+    public void shouldShedRequestsBeyondLimitAndReleaseSlotsWhenDone() throws Exception {
+        // Arrange: one slot, held by a request that blocks until released
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<MockHttpServletResponse> held = executor.submit(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/inventory/items"), response, (request, r) -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return response;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/inventory/items"), shed,
+                (request, response) -> fail("The request should have been shed"));
+
+        // Assert
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, filter.getShed());
+        assertEquals(1, filter.getInFlight());
+
+        release.countDown();
+        assertEquals(200, held.get(5, TimeUnit.SECONDS).getStatus());
+        executor.shutdown();
+        assertEquals(0, filter.getInFlight());
+
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/inventory/items"), admitted, (request, response) -> {
+        });
+        assertEquals(200, admitted.getStatus());
+    }
+}
@@ -0,0 +1,102 @@
+package com.inventory.admission;
+
+import com.inventory.security.ClientKeys;
+import com.inventory.security.JWTUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "inventory.rate-limit.enabled=true",
+        "inventory.rate-limit.capacity=10",
+        "inventory.rate-limit.refill-per-second=0.1",
+        "inventory.rate-limit.costs=GET /api/inventory/items/search=4,/api/inventory/items/bulk=10"
+})
+@AutoConfigureMockMvc
+public class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JWTUtil jwtUtil;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private ClientKeys clientKeys;
+
+    @Test
+    public void shouldRejectSubjectOverBudgetWhileOthersAreAdmitted() throws Exception {
+        // Arrange
+        String throttled = "Bearer " + jwtUtil.generateToken("rate-limited-user");
+        String other = "Bearer " + jwtUtil.generateToken("other");
+
+        // Act: two searches cost 8 of the 10 tokens, a third is over budget
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/inventory/items/search").param("query", "lamp")
+                            .header(HttpHeaders.AUTHORIZATION, throttled))
+                    .andExpect(status().isOk());
+        }
+        MvcResult rejected = mockMvc.perform(get("/api/inventory/items/search").param("query", "lamp")
+                        .header(HttpHeaders.AUTHORIZATION, throttled))
+                .andExpect(status().isTooManyRequests())
+                .andReturn();
+
+        // Assert: two missing tokens at 0.1 per second take 20 seconds
+        assertEquals("20", rejected.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+        mockMvc.perform(get("/api/inventory/items/search").param("query", "lamp")
+                        .header(HttpHeaders.AUTHORIZATION, other))
+                .andExpect(status().isOk());
+        assertTrue(rateLimitFilter.getRejected() >= 1);
+    }
+
+    @Test
+    public void shouldRefuseNewClientsRatherThanForgetOnesMidBurst() throws Exception {
+        // Arrange: room for one client, which spends part of its budget
+        RateLimitFilter filter = new RateLimitFilter(clientKeys, 10, 0.1, List.of(), 1);
+        assertEquals(200, filter(filter, "10.0.0.1").getStatus());
+
+        // Act
+        MockHttpServletResponse refused = filter(filter, "10.0.0.2");
+
+        // Assert: the newcomer waits, and the first client keeps its bucket
+        assertEquals(429, refused.getStatus());
+        assertEquals("1", refused.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, filter.getTrackedClients());
+        for (int i = 0; i < 9; i++) {
+            assertEquals(200, filter(filter, "10.0.0.1").getStatus());
+        }
+        assertEquals(429, filter(filter, "10.0.0.1").getStatus());
+    }
+
+    @Test
+    public void shouldWeighRequestsByEndpointCost() {
+        assertEquals(4, rateLimitFilter.costOf(new MockHttpServletRequest("GET", "/api/inventory/items/search")));
+        assertEquals(1, rateLimitFilter.costOf(new MockHttpServletRequest("POST", "/api/inventory/items/search")));
+        assertEquals(10, rateLimitFilter.costOf(new MockHttpServletRequest("POST", "/api/inventory/items/bulk")));
+        assertEquals(1, rateLimitFilter.costOf(new MockHttpServletRequest("GET", "/api/inventory/items")));
+    }
+
+    private static MockHttpServletResponse filter(RateLimitFilter filter, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/inventory/items");
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
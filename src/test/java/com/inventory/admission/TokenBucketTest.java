@@ -0,0 +1,39 @@
+package com.inventory.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void shouldAdmitBurstUpToCapacityAndThenReportWait() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        // Act & Assert
+        assertEquals(0, bucket.tryConsume(1, 0));
+        assertEquals(0, bucket.tryConsume(2, 0));
+        assertEquals(SECOND / 2, bucket.tryConsume(1, 0));
+        assertEquals(SECOND, bucket.tryConsume(2, 0));
+    }
+
+    @Test
+    public void shouldRefillAtConfiguredRateUpToCapacity() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(4, 2, 0);
+        assertEquals(0, bucket.tryConsume(4, 0));
+
+        // Act & Assert: half a second refills one token
+        assertTrue(bucket.tryConsume(2, SECOND / 2) > 0);
+        assertEquals(0, bucket.tryConsume(1, SECOND / 2));
+        assertFalse(bucket.isFull(SECOND));
+
+        // Refilling stops at the capacity
+        assertTrue(bucket.isFull(10 * SECOND));
+        assertEquals(0, bucket.tryConsume(4, 10 * SECOND));
+        assertTrue(bucket.tryConsume(1, 10 * SECOND) > 0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.inventory.concurrency;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JdbcPermitDataSourceTest {
+
+    private JdbcPermitDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:permits");
+        dataSource = new JdbcPermitDataSource(h2, 1, 50);
+    }
+
+    @Test
+    public void shouldWrapOnlyTheDataSourceJpaUses() {
+        // Arrange
+        BeanPostProcessor permits = VirtualThreadConfig.jdbcPermitPostProcessor(1, 50);
+        JdbcDataSource pool = new JdbcDataSource();
+
+        // Act & Assert: pools behind the replica router take no permit of their own
+        assertTrue(permits.postProcessAfterInitialization(pool, VirtualThreadConfig.JPA_DATA_SOURCE)
+                instanceof JdbcPermitDataSource);
+        assertSame(pool, permits.postProcessAfterInitialization(pool, "primaryDataSource"));
+        assertSame(pool, permits.postProcessAfterInitialization(pool, "replicaDataSource"));
+    }
+
+    @Test
+    public void shouldWaitForPermitAndTimeOut() throws Exception {
+        // Arrange
+        try (Connection first = dataSource.getConnection()) {
+            assertEquals(0, dataSource.availablePermits());
+
+            // Act & Assert
+            assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        }
+    }
+
+    @Test
+    public void shouldReleasePermitOnceWhenConnectionIsClosed() throws Exception {
+        // Arrange
+        Connection connection = dataSource.getConnection();
+        assertTrue(connection.isValid(1));
+
+        // Act
+        connection.close();
+        connection.close();
+
+        // Assert
+        assertEquals(1, dataSource.availablePermits());
+        try (Connection next = dataSource.getConnection()) {
+            assertTrue(next.isValid(1));
+        }
+    }
+
+    @Test
+    public void shouldReportMissingVirtualThreadSupportClearly() {
+        if (VirtualThreads.isSupported()) {
+            VirtualThreads.newPerTaskExecutor().shutdown();
+            return;
+        }
+        assertThrows(IllegalStateException.class, VirtualThreads::newPerTaskExecutor);
+    }
+}
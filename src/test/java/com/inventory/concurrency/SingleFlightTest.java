@@ -0,0 +1,101 @@
+package com.inventory.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    public void shouldShareOneCallBetweenConcurrentIdenticalRequests() throws Exception {
+        // Arrange: the first call blocks until every caller has arrived
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<Integer>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("laptop", () -> {
+            leaderStarted.countDown();
+            awaitQuietly(release);
+            return executions.incrementAndGet();
+        })));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 7; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("laptop", executions::incrementAndGet)));
+        }
+        while (singleFlight.getCalls() < 8) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Assert
+        for (Future<Integer> result : results) {
+            assertEquals(1, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(7, singleFlight.getCollapsed());
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldRunAgainOnceTheCallHasCompleted() {
+        // Act
+        int first = singleFlight.execute("mouse", () -> 1);
+        int second = singleFlight.execute("mouse", () -> 2);
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(2, second);
+        assertEquals(0, singleFlight.getCollapsed());
+    }
+
+    @Test
+    public void shouldPassTheFailureToEveryCaller() throws Exception {
+        // Arrange
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("chair", () -> {
+            leaderStarted.countDown();
+            awaitQuietly(release);
+            throw new IllegalStateException("database down");
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        // Act
+        Thread follower = new Thread(() -> assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute("chair", () -> 0)));
+        follower.start();
+        while (singleFlight.getCalls() < 2) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        follower.join(5000);
+
+        // Assert
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, singleFlight.getCollapsed());
+        executor.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.inventory.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.inventory.model.Inventory;
 import com.inventory.repository.InventoryRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,12 +11,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -45,6 +57,89 @@ public class InventoryControllerTest {
                 .andExpect(content().json("[{'name':'Laptop'}, {'name':'Mouse'}]"));
     }
 
+    @Test
+    public void shouldServePreSerializedListingGzippedOnRequest() throws Exception {
+        inventoryRepository.save(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+        inventoryRepository.save(new Inventory("Mouse", "Logitech", new BigDecimal("25.00"), 100));
+
+        // The listing is rebuilt in the background after the writes; until then requests take the regular path
+        MvcResult gzipped = null;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (gzipped == null || gzipped.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING) == null) {
+            assertTrue(System.currentTimeMillis() < deadline, "Listing was not rebuilt within 10 seconds");
+            Thread.sleep(50);
+            gzipped = mockMvc.perform(get("/api/inventory/items").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+        }
+        assertEquals("gzip", gzipped.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        String json;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        // Clients without gzip get the same listing uncompressed, under the tag without the encoding suffix
+        MvcResult plain = mockMvc.perform(get("/api/inventory/items"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("[{'name':'Laptop','price':1200.00}, {'name':'Mouse'}]"))
+                .andReturn();
+        assertEquals(json, plain.getResponse().getContentAsString());
+        String etag = plain.getResponse().getHeader(HttpHeaders.ETAG);
+        String gzippedEtag = gzipped.getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(etag.substring(0, etag.length() - 1) + "-gzip\"", gzippedEtag);
+        mockMvc.perform(get("/api/inventory/items").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/inventory/items").header(HttpHeaders.IF_NONE_MATCH, gzippedEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/inventory/items")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzippedEtag));
+
+        // A committed change makes the cached listing stale at once
+        inventoryRepository.save(new Inventory("Keyboard", "Mechanical", new BigDecimal("80.00"), 5));
+        mockMvc.perform(get("/api/inventory/items").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{'name':'Laptop'}, {'name':'Mouse'}, {'name':'Keyboard'}]"));
+    }
+
+    @Test
+    public void shouldReturnSingleInventoryItem() throws Exception {
+        Inventory saved = inventoryRepository.save(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+
+        mockMvc.perform(get("/api/inventory/items/{id}", saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Laptop"));
+
+        mockMvc.perform(get("/api/inventory/items/{id}", saved.getId() + 1000))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldExportInventoryItemsAsNdjson() throws Exception {
+        inventoryRepository.save(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+        inventoryRepository.save(new Inventory("Mouse", "Logitech", new BigDecimal("25.00"), 100));
+
+        // Act: The export is written asynchronously, so dispatch the async result before reading it
+        MvcResult result = mockMvc.perform(get("/api/inventory/items/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert: One JSON document per line
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"Laptop\""));
+        assertTrue(lines[1].contains("\"name\":\"Mouse\""));
+    }
+
     @Test
     public void shouldCreateInventoryItem() throws Exception {
         Inventory newInventoryItem = new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10);
@@ -60,6 +155,82 @@ public class InventoryControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    public void shouldCreateInventoryItemsInBulk() throws Exception {
+        String jsonContent = new ObjectMapper().writeValueAsString(new Inventory[]{
+                new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10),
+                new Inventory("Mouse", "Logitech", new BigDecimal("25.00"), 100)
+        });
+
+        mockMvc.perform(post("/api/inventory/items/bulk")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[1].status").value("CREATED"));
+
+        assertEquals(2, inventoryRepository.count());
+    }
+
+    @Test
+    public void shouldExchangeBinaryEncodingsWhenRequested() throws Exception {
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+        byte[] items = cbor.writeValueAsBytes(new Inventory[]{
+                new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10),
+                new Inventory("Mouse", "Logitech", new BigDecimal("25.00"), 100)
+        });
+
+        // Bulk writes accept CBOR and answer in the encoding the client accepts
+        byte[] results = mockMvc.perform(post("/api/inventory/items/bulk")
+                        .content(items)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<?> created = cbor.readValue(results, List.class);
+        assertEquals(2, created.size());
+
+        // Reads return Smile on request, prices keeping their scale
+        MediaType smileType = MediaType.parseMediaType("application/x-jackson-smile");
+        byte[] smile = mockMvc.perform(get("/api/inventory/items").accept(smileType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smileType))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<Inventory> read = new ObjectMapper(new SmileFactory()).readerForListOf(Inventory.class).readValue(smile);
+        assertEquals(List.of(new BigDecimal("1200.00"), new BigDecimal("25.00")), read.stream().map(Inventory::getPrice).toList());
+
+        // JSON stays the default
+        mockMvc.perform(get("/api/inventory/items"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void shouldExportInventoryItemsAsCborSequence() throws Exception {
+        inventoryRepository.save(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+        inventoryRepository.save(new Inventory("Mouse", "Logitech", new BigDecimal("25.00"), 100));
+
+        MvcResult result = mockMvc.perform(get("/api/inventory/items/export").accept("application/cbor-seq"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor-seq"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Items follow each other without separators
+        List<String> names = new ArrayList<>();
+        try (MappingIterator<Inventory> items = new ObjectMapper(new CBORFactory()).readerFor(Inventory.class).readValues(body)) {
+            items.forEachRemaining(item -> names.add(item.getName()));
+        }
+        assertEquals(List.of("Laptop", "Mouse"), names);
+    }
+
     @Test
     public void shouldUpdateInventoryItem() throws Exception {
         // Arrange: Create a new inventory item that will be updated
@@ -83,6 +254,26 @@ public class InventoryControllerTest {
                 .andExpect(content().json("{'price':100.00, 'stockQuantity':40}"));
     }
 
+    @Test
+    public void shouldAdjustStockAndRejectOverdraw() throws Exception {
+        // Arrange
+        Inventory item = inventoryRepository.save(new Inventory("Keyboard", "Mechanical Keyboard", new BigDecimal("150.00"), 3));
+
+        // Act & Assert: Taking two units leaves one
+        mockMvc.perform(post("/api/inventory/items/{id}/stock/adjust", item.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\": -2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(item.getId()))
+                .andExpect(jsonPath("$.stockQuantity").value(1));
+
+        // Act & Assert: Taking two more would go negative
+        mockMvc.perform(post("/api/inventory/items/{id}/stock/adjust", item.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\": -2}"))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     public void shouldDeleteInventoryItem() throws Exception {
         // Arrange: Create and save an inventory item
@@ -120,6 +311,58 @@ public class InventoryControllerTest {
                 .andExpect(jsonPath("$.content[1].name").value("Keyboard"));  // Second item is Keyboard
     }
 
+    @Test
+    public void shouldScrollInventoryItemsWithCursor() throws Exception {
+        // Arrange
+        inventoryRepository.save(new Inventory("Keyboard", "Mechanical Keyboard", new BigDecimal("150.00"), 30));
+        inventoryRepository.save(new Inventory("Monitor", "Dell Monitor", new BigDecimal("300.00"), 15));
+        inventoryRepository.save(new Inventory("Chair", "Gaming Chair", new BigDecimal("250.00"), 5));
+
+        // Act & Assert: First slice carries a continuation token and no total
+        String firstSlice = mockMvc.perform(get("/api/inventory/items/scroll")
+                        .param("size", "2")
+                        .param("sortBy", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Chair"))
+                .andExpect(jsonPath("$.content[1].name").value("Keyboard"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = new ObjectMapper().readTree(firstSlice).get("nextCursor").asText();
+
+        // Act & Assert: Second slice continues after the cursor
+        mockMvc.perform(get("/api/inventory/items/scroll")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Monitor"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    public void shouldRejectInvalidScrollCursor() throws Exception {
+        mockMvc.perform(get("/api/inventory/items/scroll")
+                        .param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldReturnLowStockInventoryItems() throws Exception {
+        inventoryRepository.save(new Inventory("Keyboard", "Mechanical Keyboard", new BigDecimal("150.00"), 30));
+        inventoryRepository.save(new Inventory("Chair", "Gaming Chair", new BigDecimal("250.00"), 5));
+        inventoryRepository.save(new Inventory("Monitor", "Dell Monitor", new BigDecimal("300.00"), 2));
+
+        mockMvc.perform(get("/api/inventory/items/low-stock")
+                        .param("threshold", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Monitor"))
+                .andExpect(jsonPath("$[1].name").value("Chair"));
+    }
+
     @Test
     public void shouldSearchInventoryByNameOrDescription() throws Exception {
         // Arrange: Create and save inventory items
@@ -145,4 +388,201 @@ public class InventoryControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Smartphone"));  // First item is Smartphone
     }
 
+    @Test
+    public void shouldAnswerConditionalGetOfItemWithNotModified() throws Exception {
+        // Arrange
+        Inventory saved = inventoryRepository.save(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+        String etag = mockMvc.perform(get("/api/inventory/items/{id}", saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert: unchanged item
+        mockMvc.perform(get("/api/inventory/items/{id}", saved.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Act & Assert: a stock adjustment produces a new version
+        mockMvc.perform(post("/api/inventory/items/{id}/stock/adjust", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\": -1}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/inventory/items/{id}", saved.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.stockQuantity").value(9));
+    }
+
+    @Test
+    public void shouldTagEachEncodingOfAnItemSeparately() throws Exception {
+        // Arrange
+        Inventory saved = inventoryRepository.save(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+
+        // Act & Assert: the CBOR representation has a tag of its own
+        mockMvc.perform(get("/api/inventory/items/{id}", saved.getId()).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0-cbor\""));
+        mockMvc.perform(get("/api/inventory/items/{id}", saved.getId())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", "\"0\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/inventory/items/{id}", saved.getId())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", "\"0-cbor\""))
+                .andExpect(status().isNotModified());
+
+        // Act & Assert: the tag still identifies the version for If-Match
+        mockMvc.perform(put("/api/inventory/items/{id}", saved.getId())
+                        .header("If-Match", "\"0-cbor\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Laptop\",\"description\":\"Dell XPS 15\",\"price\":1300.00,\"stockQuantity\":10}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
+    @Test
+    public void shouldAnswerConditionalGetOfCollectionWithNotModified() throws Exception {
+        // Arrange
+        inventoryRepository.save(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+        String etag = mockMvc.perform(get("/api/inventory/items"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert: nothing changed
+        mockMvc.perform(get("/api/inventory/items").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/inventory/items/search").param("query", "laptop").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // Act & Assert: any change moves the catalog revision
+        inventoryRepository.save(new Inventory("Mouse", "Logitech", new BigDecimal("25.00"), 100));
+        mockMvc.perform(get("/api/inventory/items").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    public void shouldHonorIfMatchOnUpdate() throws Exception {
+        // Arrange
+        Inventory saved = inventoryRepository.save(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+        String update = "{\"name\":\"Laptop\",\"description\":\"Dell XPS 15\",\"price\":1300.00,\"stockQuantity\":10}";
+
+        // Act & Assert: current version applies and returns the next one
+        mockMvc.perform(put("/api/inventory/items/{id}", saved.getId())
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(update))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+        // Act & Assert: a stale version is rejected and leaves the item alone
+        mockMvc.perform(put("/api/inventory/items/{id}", saved.getId())
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(update.replace("Dell XPS 15", "Overwritten")))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals("Dell XPS 15", inventoryRepository.findById(saved.getId()).orElseThrow().getDescription());
+    }
+
+    @Test
+    public void shouldReturnOnlyRequestedFields() throws Exception {
+        // Arrange
+        inventoryRepository.save(new Inventory("Keyboard", "Mechanical Keyboard", new BigDecimal("150.00"), 30));
+        inventoryRepository.save(new Inventory("Chair", "Gaming Chair", new BigDecimal("250.00"), 5));
+
+        // Act & Assert: all items
+        mockMvc.perform(get("/api/inventory/items").param("fields", "stockQuantity"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].stockQuantity").value(30))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+
+        // Act & Assert: paged, search and low stock
+        mockMvc.perform(get("/api/inventory/items/paged").param("fields", "name,price").param("sortBy", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Keyboard"))
+                .andExpect(jsonPath("$.content[0].stockQuantity").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(2));
+        mockMvc.perform(get("/api/inventory/items/search").param("query", "gaming").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Chair"))
+                .andExpect(jsonPath("$[0].price").doesNotExist());
+        mockMvc.perform(get("/api/inventory/items/low-stock").param("threshold", "10").param("fields", "id,stockQuantity"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].stockQuantity").value(5))
+                .andExpect(jsonPath("$[0].name").doesNotExist());
+    }
+
+    @Test
+    public void shouldRejectUnknownFields() throws Exception {
+        mockMvc.perform(get("/api/inventory/items").param("fields", "id,secret"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/inventory/items/paged").param("fields", "id").param("sortBy", "secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldReturnInventoryAggregates() throws Exception {
+        inventoryRepository.save(new Inventory("Keyboard", "Mechanical Keyboard", new BigDecimal("150.00"), 2));
+        inventoryRepository.save(new Inventory("Chair", "Gaming Chair", new BigDecimal("250.00"), 0));
+
+        mockMvc.perform(get("/api/inventory/aggregates"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemCount").value(2))
+                .andExpect(jsonPath("$.outOfStockCount").value(1))
+                .andExpect(jsonPath("$.totalUnits").value(2))
+                .andExpect(jsonPath("$.totalValue").value(300.0));
+    }
+
+    @Test
+    public void shouldImportCsvUpsertingItemsByName() throws Exception {
+        // Arrange: Mouse already exists and is updated; the description of Laptop holds a comma and a quote
+        inventoryRepository.save(new Inventory("Mouse", "Old mouse", new BigDecimal("10.00"), 1));
+        String csv = "name,description,price,stockQuantity\n"
+                + "Laptop,\"Dell XPS, 13\"\" screen\",1200.00,5\n"
+                + "Mouse,Logitech,25.50,40\n"
+                + "Cable,USB-C,not-a-price,3\n";
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/inventory/items/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert: The last progress line carries the totals; the bad row is reported by its CSV record number
+        String[] lines = body.split("\n");
+        String last = lines[lines.length - 1];
+        assertTrue(last.contains("\"done\":true"));
+        assertTrue(last.contains("\"created\":1"));
+        assertTrue(last.contains("\"updated\":1"));
+        assertTrue(last.contains("\"rejected\":1"));
+        assertTrue(body.contains("\"index\":4"));
+        assertTrue(body.contains("price must be a decimal number"));
+
+        assertEquals(2, inventoryRepository.count());
+        Inventory mouse = inventoryRepository.findByNameInOrderByIdAsc(List.of("Mouse")).get(0);
+        assertEquals("Logitech", mouse.getDescription());
+        assertEquals(40, mouse.getStockQuantity());
+        Inventory laptop = inventoryRepository.findByNameInOrderByIdAsc(List.of("Laptop")).get(0);
+        assertEquals("Dell XPS, 13\" screen", laptop.getDescription());
+    }
+
+    @Test
+    public void shouldRejectCsvImportWithUnknownColumns() throws Exception {
+        mockMvc.perform(post("/api/inventory/items/import")
+                        .contentType("text/csv")
+                        .content("name,price,stockQuantity,secret\nMouse,10.00,1,x\n"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, inventoryRepository.count());
+    }
+
 }
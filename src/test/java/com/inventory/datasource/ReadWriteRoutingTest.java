@@ -0,0 +1,136 @@
+package com.inventory.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.Service.InventoryService;
+import com.inventory.model.Inventory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        // Databases of their own, so that other test contexts never write to them
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "inventory.datasource.replica.enabled=true",
+        "inventory.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "inventory.datasource.replica.read-your-writes-ms=60000",
+        "inventory.datasource.replica.stand-in.enabled=true",
+        // Long enough for the assertions right after a write to run before it is replicated
+        "inventory.datasource.replica.stand-in.lag-ms=1500",
+        // The pre-serialized listing is built from the primary and would answer the listing requests
+        "inventory.listing-cache.enabled=false"
+})
+@AutoConfigureMockMvc
+public class ReadWriteRoutingTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void shouldServeReportingReadsFromReplicaOnceReplicated() throws InterruptedException {
+        Inventory created = inventoryService.createInventory(
+                new Inventory("Replicated lamp", "Desk lamp", new BigDecimal("30.00"), 4));
+
+        // Lookups by id stay on the primary, the listing comes from the lagging replica
+        assertTrue(inventoryService.getInventoryById(created.getId()).isPresent());
+        assertFalse(names(inventoryService.getAllInventory()).contains("Replicated lamp"));
+
+        awaitTrue(() -> names(inventoryService.getAllInventory()).contains("Replicated lamp"));
+        assertEquals(1, inventoryService.getPagedInventory(PageRequest.of(0, 100))
+                .getContent().stream().filter(item -> item.getName().equals("Replicated lamp")).count());
+    }
+
+    @Test
+    public void shouldServeClientsTheirOwnWritesFromPrimary() throws Exception {
+        mockMvc.perform(post("/api/inventory/items")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.1");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Own write\",\"description\":\"Chair\",\"price\":45.00,\"stockQuantity\":2}"))
+                .andExpect(status().isCreated());
+
+        // The writer reads its own write, tagged with the catalog revision
+        MvcResult writer = listAs("10.0.0.1");
+        assertTrue(names(writer).contains("Own write"));
+        assertNotNull(writer.getResponse().getHeader(HttpHeaders.ETAG));
+
+        // Another client reads the replica, which has not caught up, and gets no tag for the stale body
+        MvcResult other = listAs("10.0.0.2");
+        assertFalse(names(other).contains("Own write"));
+        assertNull(other.getResponse().getHeader(HttpHeaders.ETAG));
+
+        awaitTrue(() -> names(listAs("10.0.0.2")).contains("Own write"));
+    }
+
+    @Test
+    public void shouldRecordReplicaUseForCallersSharingAnotherThreadsRead() {
+        // A follower of a coalesced search gets the leader's result without routing a connection itself
+        ReplicaReads.Tracked<String> shared = new ReplicaReads.Tracked<>("result", true);
+
+        ReplicaReads.Tracked<String> follower = ReplicaReads.tracked(() -> ReplicaReads.replay(shared));
+
+        assertEquals("result", follower.value());
+        assertTrue(follower.fromReplica(), "A replayed replica read must keep the follower's response untagged");
+        assertFalse(ReplicaReads.tracked(() -> ReplicaReads.replay(new ReplicaReads.Tracked<>("result", false)))
+                .fromReplica());
+    }
+
+    private MvcResult listAs(String remoteAddr) {
+        try {
+            return mockMvc.perform(get("/api/inventory/items")
+                            .with(request -> {
+                                request.setRemoteAddr(remoteAddr);
+                                return request;
+                            }))
+                    .andExpect(status().isOk())
+                    .andReturn();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> names(MvcResult result) {
+        try {
+            List<Map<String, Object>> items = objectMapper.readValue(result.getResponse().getContentAsString(),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, Map.class));
+            return items.stream().map(item -> (String) item.get("name")).toList();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> names(List<Inventory> items) {
+        return items.stream().map(Inventory::getName).toList();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Change was not replicated within 10 seconds");
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.inventory.datasource;
+
+import com.inventory.Service.InventoryService;
+import com.inventory.model.BulkItemResult;
+import com.inventory.model.CursorPage;
+import com.inventory.model.Inventory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        // Databases of their own, so that other test contexts never write to them
+        "spring.datasource.url=jdbc:h2:mem:partition-test-0",
+        "inventory.partitioning.enabled=true",
+        "inventory.partitioning.urls=jdbc:h2:mem:partition-test-1;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:partition-test-2;DB_CLOSE_DELAY=-1",
+        "inventory.partitioning.warehouses=WH1=1,WH2=2,WH3=1",
+        "inventory.listing-cache.enabled=false"
+})
+public class WarehousePartitioningTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private WarehousePartitions partitions;
+
+    @Test
+    public void shouldStoreItemsInThePartitionOfTheirWarehouse() {
+        assertEquals(3, partitions.count());
+        for (int partition = 0; partition < partitions.count(); partition++) {
+            Inventory created = inventoryService.createInventory(item("Routed " + partition, warehouseIn(partition), 5));
+
+            assertEquals(partition, partitions.ofId(created.getId()));
+            assertTrue(created.getId() > partition * WarehousePartitions.ID_RANGE);
+            assertEquals(warehouseIn(partition), inventoryService.getInventoryById(created.getId())
+                    .map(Inventory::getWarehouse).orElse(null));
+        }
+    }
+
+    @Test
+    public void shouldPlaceWarehousesByTheirAssignmentOnly() {
+        assertEquals(List.of(0, 1, 2, 1, 0, 0), Stream.of(null, "WH1", "WH2", "WH3", "WH0", "Unassigned")
+                .map(partitions::ofWarehouse).toList());
+
+        // A partition added later leaves every warehouse where it was
+        WarehousePartitions grown = new WarehousePartitions(true, List.of("a", "b", "c"), List.of("WH1=1", "WH2=2", "WH3=1"), 1);
+        try {
+            assertEquals(List.of(0, 1, 2, 1, 0, 0), Stream.of(null, "WH1", "WH2", "WH3", "WH0", "Unassigned")
+                    .map(grown::ofWarehouse).toList());
+        } finally {
+            grown.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new WarehousePartitions(true, List.of("a"), List.of("WH1=2"), 1));
+    }
+
+    @Test
+    public void shouldRouteSingleItemOperationsToTheOwningPartition() {
+        Inventory created = inventoryService.createInventory(item("Routed crate", warehouseIn(2), 10));
+        Long id = created.getId();
+
+        Inventory changes = item("Routed crate XL", null, 10);
+        Inventory updated = inventoryService.updateInventory(id, changes);
+        assertEquals("Routed crate XL", updated.getName());
+        assertEquals(7, inventoryService.adjustStock(id, -3));
+        assertEquals(7, inventoryService.getInventoryById(id).map(Inventory::getStockQuantity).orElse(-1));
+
+        inventoryService.deleteInventoryById(id);
+        assertEquals(Optional.empty(), inventoryService.getInventoryById(id));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.deleteInventoryById(id));
+    }
+
+    @Test
+    public void shouldWriteBulkItemsToTheirPartitionsAndReportInSubmissionOrder() {
+        List<Inventory> items = List.of(
+                item("Bulk fan 1", warehouseIn(1), 1),
+                item("Bulk fan 0", warehouseIn(0), 1),
+                item("Bulk fan 2", warehouseIn(2), 1),
+                item("Bulk fan 1b", warehouseIn(1), 1));
+
+        List<BulkItemResult> results = inventoryService.createInventoryInBulk(items);
+
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(BulkItemResult::getIndex).toList());
+        assertEquals(List.of(1, 0, 2, 1), results.stream().map(result -> partitions.ofId(result.getId())).toList());
+    }
+
+    @Test
+    public void shouldMergeQueriesAcrossPartitions() {
+        List<Long> ids = new ArrayList<>();
+        for (int partition = 0; partition < partitions.count(); partition++) {
+            ids.add(inventoryService.createInventory(item("Merged pallet " + partition, warehouseIn(partition), 90 + partition)).getId());
+        }
+
+        assertEquals(ids, inventoryService.searchInventory("pallet", 10).stream().map(Inventory::getId).sorted().toList());
+        assertTrue(inventoryService.getAllInventory().stream().map(Inventory::getId).toList().containsAll(ids));
+
+        List<Integer> stock = inventoryService.findInventoryBelowStockThreshold(1000).stream()
+                .map(Inventory::getStockQuantity).toList();
+        assertEquals(stock.stream().sorted().toList(), stock);
+
+        long total = inventoryService.getAllInventory().size();
+        Page<Inventory> page = inventoryService.getPagedInventory(
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "stockQuantity")));
+        assertEquals(total, page.getTotalElements());
+        List<Integer> expected = inventoryService.getAllInventory().stream()
+                .map(Inventory::getStockQuantity)
+                .sorted((a, b) -> b - a)
+                .skip(2)
+                .limit(2)
+                .toList();
+        assertEquals(expected, page.getContent().stream().map(Inventory::getStockQuantity).toList());
+
+        Page<Map<String, Object>> projected = inventoryService.getPagedInventory(
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "stockQuantity")), List.of("name"));
+        // The stock quantity was only read to merge the partitions' rows
+        assertEquals(Set.of("id", "name"), projected.getContent().get(0).keySet());
+        assertEquals(inventoryService.getPagedInventory(PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "stockQuantity")))
+                        .getContent().stream().map(Inventory::getName).toList(),
+                projected.getContent().stream().map(row -> row.get("name")).toList());
+    }
+
+    @Test
+    public void shouldWalkTheCursorAcrossPartitions() {
+        for (int partition = 0; partition < partitions.count(); partition++) {
+            inventoryService.createInventory(item("Cursor crate " + partition, warehouseIn(partition), partition));
+        }
+        List<Inventory> all = inventoryService.getAllInventory();
+
+        List<Long> walked = new ArrayList<>();
+        CursorPage<Inventory> slice = inventoryService.getInventoryAfterCursor(null, "name", Sort.Direction.ASC, 2, true);
+        assertEquals(all.size(), slice.getTotalElements());
+        walked.addAll(slice.getContent().stream().map(Inventory::getId).toList());
+        while (slice.getNextCursor() != null) {
+            slice = inventoryService.getInventoryAfterCursor(slice.getNextCursor(), null, null, 2, false);
+            walked.addAll(slice.getContent().stream().map(Inventory::getId).toList());
+        }
+
+        List<Long> expected = all.stream()
+                .sorted((a, b) -> a.getName().equals(b.getName())
+                        ? a.getId().compareTo(b.getId()) : a.getName().compareTo(b.getName()))
+                .map(Inventory::getId)
+                .toList();
+        assertEquals(expected, walked);
+    }
+
+    private String warehouseIn(int partition) {
+        return Stream.iterate(0, i -> i + 1)
+                .map(i -> "WH" + i)
+                .filter(warehouse -> partitions.ofWarehouse(warehouse) == partition)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Inventory item(String name, String warehouse, int stockQuantity) {
+        return new Inventory(null, null, name, "Partitioned", new BigDecimal("10.00"), stockQuantity, warehouse);
+    }
+}
@@ -0,0 +1,74 @@
+package com.inventory.metrics;
+
+import com.inventory.model.Inventory;
+import com.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @BeforeEach
+    public void setUp() {
+        inventoryRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldExposeEndpointAndRepositoryLatencyPercentiles() throws Exception {
+        // Arrange
+        inventoryRepository.save(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+        inventoryRepository.save(new Inventory("Mouse", "Logitech", new BigDecimal("25.00"), 100));
+
+        // Act
+        mockMvc.perform(get("/api/inventory/items")).andExpect(status().isOk());
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertTrue(scrape.contains("http_server_requests_seconds{") && scrape.contains("uri=\"/api/inventory/items\""));
+        assertTrue(scrape.contains("quantile=\"0.999\""));
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds"));
+        assertTrue(scrape.contains("hikaricp_connections_acquire_seconds"));
+        assertTrue(scrape.contains("inventory_cache_hits_total{cache=\"inventory.item\""));
+    }
+
+    @Test
+    public void shouldRecordRowsReturnedPerRepositoryMethod() throws Exception {
+        // Arrange
+        inventoryRepository.save(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+        inventoryRepository.save(new Inventory("Mouse", "Logitech", new BigDecimal("25.00"), 100));
+        inventoryRepository.save(new Inventory("Monitor", "LG", new BigDecimal("300.00"), 5));
+
+        // Act
+        inventoryRepository.findAll();
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("inventory_repository_rows_max{")
+                && line.contains("method=\"findAll\"")
+                && line.contains("repository=\"InventoryRepository\"")
+                && line.endsWith(" 3.0")), scrape);
+    }
+}
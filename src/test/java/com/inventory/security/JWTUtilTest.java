@@ -1,5 +1,6 @@
 package com.inventory.security;
 
+import com.inventory.model.CacheStats;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -83,4 +84,63 @@ public class JWTUtilTest {
                 "Token should be invalid with a different signing key.");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldAnswerRepeatedValidationsFromVerifiedTokenCache() {
+        String token = jwtUtil.generateToken(USERNAME);
+
+        assertTrue(jwtUtil.isTokenValid(token, USERNAME));
+        assertTrue(jwtUtil.isTokenValid(token, USERNAME));
+        assertFalse(jwtUtil.isTokenValid(token, "wrong user"),
+                "Cached tokens must still be checked against the username.");
+
+        CacheStats stats = jwtUtil.getVerifiedTokenCacheStats();
+        assertEquals(1, stats.misses(), "Only the first validation should parse the token.");
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    public void shouldNotCacheTamperedTokens() {
+        String tamperedToken = jwtUtil.generateToken(USERNAME) + "XX";
+
+        assertFalse(jwtUtil.isTokenValid(tamperedToken, USERNAME));
+        assertFalse(jwtUtil.isTokenValid(tamperedToken, USERNAME));
+
+        assertEquals(0, jwtUtil.getVerifiedTokenCacheStats().size());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedTokenWhenCacheIsFull() {
+        JWTUtil smallCacheJwtUtil = new JWTUtil(SECRET_KEY, TOKEN_VALID_ONE_HOUR, 2);
+        String first = smallCacheJwtUtil.generateToken("first");
+        String second = smallCacheJwtUtil.generateToken("second");
+        String third = smallCacheJwtUtil.generateToken("third");
+
+        assertTrue(smallCacheJwtUtil.isTokenValid(first, "first"));
+        assertTrue(smallCacheJwtUtil.isTokenValid(second, "second"));
+        assertTrue(smallCacheJwtUtil.isTokenValid(first, "first"));
+        assertTrue(smallCacheJwtUtil.isTokenValid(third, "third"));
+
+        // The second token was used least recently, so only it had to make room
+        assertTrue(smallCacheJwtUtil.isTokenValid(first, "first"));
+        assertTrue(smallCacheJwtUtil.isTokenValid(third, "third"));
+        CacheStats stats = smallCacheJwtUtil.getVerifiedTokenCacheStats();
+        assertEquals(2, stats.size());
+        assertEquals(1, stats.evictions());
+        assertEquals(3, stats.misses());
+        assertEquals(3, stats.hits());
+    }
+
+    @Test
+    public void shouldRejectCachedTokenOnceItExpires() throws InterruptedException {
+        JWTUtil shortLivedJwtUtil = new JWTUtil(SECRET_KEY, 1000);
+        String token = shortLivedJwtUtil.generateToken(USERNAME);
+        assertTrue(shortLivedJwtUtil.isTokenValid(token, USERNAME));
+
+        Thread.sleep(1100);
+
+        assertFalse(shortLivedJwtUtil.isTokenValid(token, USERNAME),
+                "A cached token should be invalid after its expiry.");
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.inventory.service;
+
+import com.inventory.Service.CatalogRevision;
+import com.inventory.Service.InventoryAggregateTotals;
+import com.inventory.Service.InventoryReadCoalescer;
+import com.inventory.Service.InventorySearchIndex;
+import com.inventory.Service.StockLevelIndex;
+import com.inventory.event.InventoryChangeEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.event.TransactionalApplicationListenerMethodAdapter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogRevisionTest {
+
+    @Test
+    public void shouldAdvanceOnlyAfterEveryViewHasAppliedTheChange() throws Exception {
+        int revision = listenerOrder(CatalogRevision.class);
+        for (Class<?> view : List.of(InventorySearchIndex.class, StockLevelIndex.class,
+                InventoryAggregateTotals.class, InventoryReadCoalescer.class)) {
+            assertTrue(listenerOrder(view) < revision, view.getSimpleName() + " must apply changes before the revision moves");
+        }
+    }
+
+    // The order Spring runs the after-commit listener of the class in, as it registers it
+    private static int listenerOrder(Class<?> listener) throws NoSuchMethodException {
+        return new TransactionalApplicationListenerMethodAdapter(listener.getSimpleName(), listener,
+                listener.getMethod("onInventoryChange", InventoryChangeEvent.class)).getOrder();
+    }
+}
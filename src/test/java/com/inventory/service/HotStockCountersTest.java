@@ -0,0 +1,157 @@
+package com.inventory.service;
+
+import com.inventory.Service.HotStockCounters;
+import com.inventory.Service.InsufficientStockException;
+import com.inventory.Service.InventoryService;
+import com.inventory.model.Inventory;
+import com.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "inventory.hot-stock.enabled=true",
+        "inventory.hot-stock.stripes=4",
+        // Flushes are triggered by the tests
+        "inventory.hot-stock.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+public class HotStockCountersTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private HotStockCounters hotStock;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    private Inventory hotItem;
+
+    @BeforeEach
+    public void setUp() {
+        hotItem = inventoryRepository.save(new Inventory("Console", "Limited edition", new BigDecimal("499.00"), 100));
+        inventoryService.promoteToHotStock(hotItem.getId());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        inventoryRepository.findAll().forEach(item -> inventoryService.demoteFromHotStock(item.getId()));
+        inventoryRepository.deleteAll();
+    }
+
+    @Test
+    void shouldChangeTheEntityTagWhenHotStockChanges() throws Exception {
+        // Arrange
+        String etag = mockMvc.perform(get("/api/inventory/items/{id}", hotItem.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act: the adjustment stays in the counters, so the version does not move
+        inventoryService.adjustStock(hotItem.getId(), -1);
+
+        // Assert
+        String adjusted = mockMvc.perform(get("/api/inventory/items/{id}", hotItem.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, adjusted);
+        mockMvc.perform(get("/api/inventory/items/{id}", hotItem.getId()).header(HttpHeaders.IF_NONE_MATCH, adjusted))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldNeverOversellUnderConcurrentReservations() throws InterruptedException {
+        // Arrange
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // Act: 300 single-unit reservations against 100 units
+        for (int i = 0; i < 300; i++) {
+            executor.submit(() -> {
+                try {
+                    inventoryService.adjustStock(hotItem.getId(), -1);
+                    reserved.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        hotStock.flush();
+
+        // Assert
+        assertEquals(100, reserved.get());
+        assertEquals(200, rejected.get());
+        assertEquals(0, inventoryRepository.findById(hotItem.getId()).get().getStockQuantity());
+    }
+
+    @Test
+    void shouldDrawOnOtherStripesWhenOwnStripeIsShort() {
+        // Act: each stripe holds 25 units, so this needs several of them
+        int remaining = inventoryService.adjustStock(hotItem.getId(), -90);
+
+        // Assert
+        assertEquals(10, remaining);
+        assertThrows(InsufficientStockException.class, () -> inventoryService.adjustStock(hotItem.getId(), -11));
+        assertEquals(10, inventoryService.getInventoryById(hotItem.getId()).get().getStockQuantity());
+    }
+
+    @Test
+    void shouldFlushCoalescedDeltasInOneUpdate() {
+        // Arrange
+        long versionBefore = inventoryRepository.findById(hotItem.getId()).get().getVersion();
+
+        // Act
+        inventoryService.adjustStock(hotItem.getId(), -3);
+        inventoryService.adjustStock(hotItem.getId(), -2);
+        inventoryService.adjustStock(hotItem.getId(), 1);
+        int beforeFlush = inventoryRepository.findById(hotItem.getId()).get().getStockQuantity();
+        hotStock.flush();
+        Inventory afterFlush = inventoryRepository.findById(hotItem.getId()).get();
+
+        // Assert: the database only sees the net change, written once
+        assertEquals(100, beforeFlush);
+        assertEquals(96, afterFlush.getStockQuantity());
+        assertEquals(versionBefore + 1, afterFlush.getVersion());
+    }
+
+    @Test
+    void shouldKeepCounterStockWhenHotItemIsUpdated() {
+        // Arrange
+        inventoryService.adjustStock(hotItem.getId(), -5);
+
+        // Act
+        Inventory update = new Inventory("Console", "Limited edition", new BigDecimal("449.00"), 1000);
+        inventoryService.updateInventory(hotItem.getId(), update);
+        inventoryService.demoteFromHotStock(hotItem.getId());
+
+        // Assert
+        Inventory stored = inventoryRepository.findById(hotItem.getId()).get();
+        assertEquals(new BigDecimal("449.00"), stored.getPrice());
+        assertEquals(95, stored.getStockQuantity());
+        assertFalse(hotStock.isHot(hotItem.getId()));
+        assertEquals(94, inventoryService.adjustStock(hotItem.getId(), -1));
+    }
+}
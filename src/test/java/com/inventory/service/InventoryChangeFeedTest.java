@@ -0,0 +1,137 @@
+package com.inventory.service;
+
+import com.inventory.Service.InventoryChangeFeed;
+import com.inventory.event.InventoryChangeEvent;
+import com.inventory.model.InventoryChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryChangeFeedTest {
+
+    private final InventoryChangeFeed feed = new InventoryChangeFeed(4, 1, 10, 200);
+
+    @AfterEach
+    public void shutdown() {
+        feed.shutdown();
+    }
+
+    private void publishStockChange(long id, int stockQuantity) {
+        feed.onInventoryChange(InventoryChangeEvent.stockAdjusted(id, stockQuantity, null));
+    }
+
+    @Test
+    public void shouldDeliverChangesInOrderAndResumeAfterLastEventId() throws InterruptedException {
+        RecordingSubscriber first = new RecordingSubscriber();
+        Runnable unsubscribe = feed.subscribe(null, first);
+        publishStockChange(1L, 10);
+        publishStockChange(2L, 20);
+
+        InventoryChange change1 = first.changes.poll(5, TimeUnit.SECONDS);
+        InventoryChange change2 = first.changes.poll(5, TimeUnit.SECONDS);
+        assertEquals(1L, change1.id());
+        assertEquals(2L, change2.id());
+        assertEquals(change1.sequence() + 1, change2.sequence());
+        unsubscribe.run();
+
+        // Everything after the last seen id is replayed, including changes committed while disconnected
+        String lastSeen = first.eventIds.poll();
+        publishStockChange(3L, 30);
+        RecordingSubscriber resumed = new RecordingSubscriber();
+        feed.subscribe(lastSeen, resumed);
+
+        assertEquals(2L, resumed.changes.poll(5, TimeUnit.SECONDS).id());
+        assertEquals(3L, resumed.changes.poll(5, TimeUnit.SECONDS).id());
+        assertNull(resumed.resync.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldResyncSubscriberResumingFromOverwrittenChange() throws InterruptedException {
+        RecordingSubscriber first = new RecordingSubscriber();
+        Runnable unsubscribe = feed.subscribe(null, first);
+        publishStockChange(1L, 10);
+        first.changes.poll(5, TimeUnit.SECONDS);
+        String lastSeen = first.eventIds.poll();
+        unsubscribe.run();
+
+        // The ring holds four changes, so the change after lastSeen is overwritten
+        for (int i = 0; i < 5; i++) {
+            publishStockChange(2L, i);
+        }
+        RecordingSubscriber resumed = new RecordingSubscriber();
+        feed.subscribe(lastSeen, resumed);
+
+        assertEquals(feed.latestEventId(), resumed.resync.poll(5, TimeUnit.SECONDS));
+        assertTrue(resumed.changes.isEmpty());
+        assertEquals(0, feed.getSubscriberCount(), "A resynced subscriber should be dropped");
+        assertEquals(1, feed.getResyncs());
+    }
+
+    @Test
+    public void shouldResyncSubscriberWithEventIdFromAnotherRun() throws InterruptedException {
+        publishStockChange(1L, 10);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        feed.subscribe("previous-run.1", subscriber);
+
+        assertNotNull(subscriber.resync.poll(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.changes.isEmpty());
+    }
+
+    @Test
+    public void shouldKeepDeliveringWhileAnotherSubscriberIsStalled() throws InterruptedException {
+        // Its single delivery thread gets blocked by the stalled subscriber
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingSubscriber stalled = new RecordingSubscriber() {
+            @Override
+            public void onChange(String eventId, InventoryChange change) {
+                super.onChange(eventId, change);
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        feed.subscribe(null, stalled);
+        publishStockChange(1L, 10);
+        assertNotNull(stalled.changes.poll(5, TimeUnit.SECONDS));
+
+        RecordingSubscriber healthy = new RecordingSubscriber();
+        feed.subscribe(null, healthy);
+        publishStockChange(2L, 20);
+
+        assertEquals(2L, healthy.changes.poll(5, TimeUnit.SECONDS).id());
+        assertEquals(1, feed.getStalledDrops());
+        assertEquals(1, feed.getSubscriberCount(), "The stalled subscriber should be dropped");
+
+        // Once its write returns, the dropped subscriber learns it has to resync
+        unblock.countDown();
+        assertNotNull(stalled.resync.poll(5, TimeUnit.SECONDS));
+        assertTrue(stalled.changes.isEmpty());
+    }
+
+    private static class RecordingSubscriber implements InventoryChangeFeed.Subscriber {
+
+        final BlockingQueue<InventoryChange> changes = new LinkedBlockingQueue<>();
+        final BlockingQueue<String> eventIds = new LinkedBlockingQueue<>();
+        final BlockingQueue<String> resync = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onChange(String eventId, InventoryChange change) {
+            eventIds.add(eventId);
+            changes.add(change);
+        }
+
+        @Override
+        public void onResync(String lastEventId) {
+            resync.add(lastEventId);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.inventory.service;
+
+import com.inventory.Service.InventoryCsvReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryCsvReaderTest {
+
+    @Test
+    public void shouldReadQuotedFieldsSpanningLinesInAnyColumnOrder() throws IOException {
+        InventoryCsvReader csv = new InventoryCsvReader(new StringReader(
+                "StockQuantity,Price,Name,Description\r\n"
+                        + "5,12.50,Desk,\"Oak, \"\"large\"\"\r\nwith drawers\"\r\n"
+                        + "\r\n"
+                        + "0,3,Lamp,\r\n"));
+
+        List<InventoryCsvReader.Row> rows = csv.readBatch(10);
+
+        assertEquals(2, rows.size(), "Blank lines should be skipped");
+        InventoryCsvReader.ParsedRow desk = csv.parse(rows.get(0));
+        assertNull(desk.error());
+        assertEquals(2, desk.number());
+        assertEquals("Desk", desk.item().getName());
+        assertEquals("Oak, \"large\"\r\nwith drawers", desk.item().getDescription());
+        assertEquals(new BigDecimal("12.50"), desk.item().getPrice());
+        assertEquals(5, desk.item().getStockQuantity());
+        assertEquals(4, csv.parse(rows.get(1)).number());
+        assertTrue(csv.readBatch(10).isEmpty());
+    }
+
+    @Test
+    public void shouldRejectInvalidRowsIndividually() throws IOException {
+        InventoryCsvReader csv = new InventoryCsvReader(new StringReader(
+                "name,price,stockQuantity\n"
+                        + ",1.00,1\n"
+                        + "Desk,-1,1\n"
+                        + "Desk,1.005,1\n"
+                        + "Desk,1.00,many\n"
+                        + "Desk,1.00\n"));
+
+        List<String> errors = csv.readBatch(10).stream()
+                .map(csv::parse)
+                .map(InventoryCsvReader.ParsedRow::error)
+                .toList();
+
+        assertEquals(List.of("name is required", "price must not be negative",
+                "price must have at most 2 decimal places", "stockQuantity must be a whole number",
+                "Expected 3 fields but found 2"), errors);
+    }
+
+    @Test
+    public void shouldRefuseHeaderWithoutRequiredColumns() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new InventoryCsvReader(new StringReader("name,description\nDesk,Oak\n")));
+        assertThrows(IllegalArgumentException.class, () -> new InventoryCsvReader(new StringReader("")));
+    }
+}
@@ -0,0 +1,103 @@
+package com.inventory.service;
+
+import com.inventory.Service.InventoryItemCache;
+import com.inventory.model.CacheStats;
+import com.inventory.model.Inventory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryItemCacheTest {
+
+    private static Inventory item(long id) {
+        return new Inventory(id, "Item" + id, "Description" + id, new BigDecimal("10.00"), 5);
+    }
+
+    @Test
+    public void shouldServeRepeatedLookupsFromCache() {
+        InventoryItemCache cache = new InventoryItemCache(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> { loads.incrementAndGet(); return Optional.of(item(id)); });
+        Optional<Inventory> cached = cache.get(1L, id -> { loads.incrementAndGet(); return Optional.of(item(id)); });
+
+        assertEquals(1, loads.get(), "Second lookup should not hit the loader");
+        assertEquals("Item1", cached.get().getName());
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    public void shouldReturnIndependentCopies() {
+        InventoryItemCache cache = new InventoryItemCache(10, 60_000);
+        cache.get(1L, id -> Optional.of(item(id)));
+
+        cache.get(1L, id -> Optional.empty()).get().setName("Changed by caller");
+
+        assertEquals("Item1", cache.get(1L, id -> Optional.empty()).get().getName());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        InventoryItemCache cache = new InventoryItemCache(2, 60_000);
+        cache.get(1L, id -> Optional.of(item(id)));
+        cache.get(2L, id -> Optional.of(item(id)));
+        cache.get(1L, id -> Optional.of(item(id)));   // touch 1 so that 2 is the eldest
+        cache.get(3L, id -> Optional.of(item(id)));
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, id -> { loads.incrementAndGet(); return Optional.of(item(id)); });
+        cache.get(2L, id -> { loads.incrementAndGet(); return Optional.of(item(id)); });
+
+        assertEquals(1, loads.get(), "Only the evicted item should be reloaded");
+        assertTrue(cache.getStats().evictions() >= 1);
+    }
+
+    @Test
+    public void shouldExpireEntriesAfterTtl() throws InterruptedException {
+        InventoryItemCache cache = new InventoryItemCache(10, 1);
+        cache.get(1L, id -> Optional.of(item(id)));
+        Thread.sleep(20);
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, id -> { loads.incrementAndGet(); return Optional.of(item(id)); });
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().expirations());
+    }
+
+    @Test
+    public void shouldNotCacheLoadThatOverlapsAnInvalidation() {
+        InventoryItemCache cache = new InventoryItemCache(10, 60_000);
+
+        // The write commits and invalidates while the stale row is being loaded
+        cache.get(1L, id -> {
+            cache.invalidate(id);
+            return Optional.of(item(id));
+        });
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, id -> { loads.incrementAndGet(); return Optional.of(item(id)); });
+        assertEquals(1, loads.get(), "The overlapping load must not have been cached");
+    }
+
+    @Test
+    public void shouldCacheLoadThatOverlapsAnInvalidationOfAnotherItem() {
+        InventoryItemCache cache = new InventoryItemCache(10, 60_000);
+
+        // A write to item 2 commits while item 1 is being loaded
+        cache.get(1L, id -> {
+            cache.invalidate(2L);
+            return Optional.of(item(id));
+        });
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, id -> { loads.incrementAndGet(); return Optional.of(item(id)); });
+        assertEquals(0, loads.get(), "Writes to other items must not keep a load from being cached");
+    }
+}
@@ -1,8 +1,19 @@
 package com.inventory.service;
 
+import com.inventory.Service.InsufficientStockException;
+import com.inventory.Service.InventoryAggregateTotals;
+import com.inventory.Service.InventoryChangeFeed;
 import com.inventory.Service.InventoryService;
+import com.inventory.Service.StockLevelIndex;
+import com.inventory.event.InventoryChangeEvent;
+import com.inventory.model.BulkItemResult;
+import com.inventory.model.CursorPage;
 import com.inventory.model.Inventory;
+import com.inventory.model.InventoryAggregates;
+import com.inventory.model.InventoryChange;
+import com.inventory.model.StockThresholdCrossing;
 import com.inventory.repository.InventoryRepository;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,8 +23,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,6 +43,12 @@ public class InventoryServiceTest {
     @Autowired
     private InventoryRepository inventoryRepository;
 
+    @Autowired
+    private InventoryAggregateTotals aggregateTotals;
+
+    @Autowired
+    private StockLevelIndex stockLevelIndex;
+
     @BeforeEach
     public void clearInventory() {
         inventoryRepository.deleteAll();
@@ -61,6 +84,21 @@ public class InventoryServiceTest {
         assertTrue(inventoryList.contains(inventory2), "Inventory list should contain inventory2");
     }
 
+    @Test
+    public void shouldStreamAllInventoriesInIdOrder() {
+        // Arrange
+        Inventory inventory1 = inventoryRepository.save(new Inventory("Item1", "Description1", new BigDecimal("100.00"), 10));
+        Inventory inventory2 = inventoryRepository.save(new Inventory("Item2", "Description2", new BigDecimal("150.00"), 5));
+
+        // Act
+        List<Inventory> streamed = new ArrayList<>();
+        inventoryService.streamAllInventory(streamed::add);
+
+        // Assert
+        assertEquals(2, streamed.size());
+        assertEquals(inventory1.getId(), streamed.get(0).getId());
+        assertEquals(inventory2.getId(), streamed.get(1).getId());
+    }
 
     @Test
     public void shouldRetrieveInventoryById() {
@@ -80,6 +118,29 @@ public class InventoryServiceTest {
         assertEquals(saved.getStockQuantity(), retrievedInventory.get().getStockQuantity());
     }
 
+    @Test
+    public void shouldNotServeStaleCachedInventoryAfterWrites() {
+        // Arrange: Load the item once so that it is cached
+        Inventory saved = inventoryService.createInventory(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+        inventoryService.getInventoryById(saved.getId());
+
+        // Act
+        saved.setPrice(new BigDecimal("999.00"));
+        inventoryService.updateInventory(saved.getId(), saved);
+        Inventory afterUpdate = inventoryService.getInventoryById(saved.getId()).get();
+
+        inventoryService.adjustStock(saved.getId(), -4);
+        Inventory afterAdjustment = inventoryService.getInventoryById(saved.getId()).get();
+
+        inventoryService.deleteInventoryById(saved.getId());
+        Optional<Inventory> afterDelete = inventoryService.getInventoryById(saved.getId());
+
+        // Assert
+        assertEquals(new BigDecimal("999.00"), afterUpdate.getPrice());
+        assertEquals(6, afterAdjustment.getStockQuantity());
+        assertFalse(afterDelete.isPresent());
+    }
+
     @Test
     void shouldUpdateExistingInventory() {
         // Arrange
@@ -98,6 +159,30 @@ public class InventoryServiceTest {
         assertEquals(15, updatedInventory.get().getStockQuantity());
     }
 
+    @Test
+    void shouldAdjustStockAtomically() throws InterruptedException {
+        // Arrange
+        Inventory saved = inventoryService.createInventory(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 100));
+
+        // Act: 100 concurrent single-unit decrements
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 100; i++) {
+            executor.submit(() -> inventoryService.adjustStock(saved.getId(), -1));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert: No decrement was lost, and the next one is refused
+        assertEquals(0, inventoryRepository.findById(saved.getId()).get().getStockQuantity());
+        assertThrows(InsufficientStockException.class, () -> inventoryService.adjustStock(saved.getId(), -1));
+        assertEquals(5, inventoryService.adjustStock(saved.getId(), 5));
+    }
+
+    @Test
+    void shouldRejectStockAdjustmentForUnknownItem() {
+        assertThrows(EntityNotFoundException.class, () -> inventoryService.adjustStock(-1L, 1));
+    }
+
     @Test
     void shouldDeleteInventoryById() {
         // Arrange
@@ -112,6 +197,47 @@ public class InventoryServiceTest {
         assertFalse(deletedInventory.isPresent(), "Inventory should be deleted");
     }
 
+    @Test
+    public void shouldCreateInventoriesInBulkAndReportPerItemResults() {
+        // Arrange: The last item already exists and must be rejected
+        Inventory existing = inventoryRepository.save(new Inventory("Existing", "Already saved", new BigDecimal("10.00"), 1));
+        List<Inventory> items = List.of(
+                new Inventory("Item1", "Description1", new BigDecimal("100.00"), 10),
+                new Inventory("Item2", "Description2", new BigDecimal("150.00"), 5),
+                existing);
+
+        // Act
+        List<BulkItemResult> results = inventoryService.createInventoryInBulk(items);
+
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals(BulkItemResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(BulkItemResult.Status.CREATED, results.get(1).getStatus());
+        assertEquals(BulkItemResult.Status.REJECTED, results.get(2).getStatus());
+        assertTrue(inventoryRepository.findById(results.get(0).getId()).isPresent());
+        assertTrue(inventoryRepository.findById(results.get(1).getId()).isPresent());
+        assertEquals(3, inventoryRepository.count());
+    }
+
+    @Test
+    public void shouldUpdateInventoriesInBulkAndReportMissingItems() {
+        // Arrange
+        Inventory item1 = inventoryRepository.save(new Inventory("Item1", "Description1", new BigDecimal("100.00"), 10));
+        Inventory item2 = inventoryRepository.save(new Inventory("Item2", "Description2", new BigDecimal("150.00"), 5));
+        inventoryRepository.deleteById(item2.getId());
+
+        item1.setStockQuantity(42);
+        item2.setStockQuantity(7);
+
+        // Act
+        List<BulkItemResult> results = inventoryService.updateInventoryInBulk(List.of(item1, item2));
+
+        // Assert
+        assertEquals(BulkItemResult.Status.UPDATED, results.get(0).getStatus());
+        assertEquals(BulkItemResult.Status.NOT_FOUND, results.get(1).getStatus());
+        assertEquals(42, inventoryRepository.findById(item1.getId()).get().getStockQuantity());
+    }
+
     @Test
     public void shouldRetrievePagedAndSortedInventory() {
         // Arrange
@@ -134,6 +260,58 @@ public class InventoryServiceTest {
         assertTrue(pagedInventory.hasNext());
     }
 
+    @Test
+    public void shouldScrollThroughInventoryWithCursor() {
+        // Arrange: Include duplicate sort keys so the id tie-breaker is exercised
+        inventoryRepository.save(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+        inventoryRepository.save(new Inventory("Mouse", "Logitech", new BigDecimal("50.00"), 100));
+        inventoryRepository.save(new Inventory("Keyboard", "Corsair", new BigDecimal("150.00"), 50));
+        inventoryRepository.save(new Inventory("Keyboard", "Logitech", new BigDecimal("90.00"), 20));
+        inventoryRepository.save(new Inventory("Monitor", "Dell", new BigDecimal("300.00"), 5));
+
+        // Act: Walk the whole catalog two items at a time
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        int slices = 0;
+        do {
+            CursorPage<Inventory> slice = inventoryService.getInventoryAfterCursor(cursor, "name", Sort.Direction.ASC, 2, false);
+            slice.getContent().forEach(item -> names.add(item.getName()));
+            assertNull(slice.getTotalElements(), "Total should not be counted unless requested");
+            cursor = slice.getNextCursor();
+            slices++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(List.of("Keyboard", "Keyboard", "Laptop", "Monitor", "Mouse"), names);
+        assertEquals(3, slices);
+    }
+
+    @Test
+    public void shouldScrollDescendingAndCountWhenRequested() {
+        // Arrange
+        inventoryRepository.save(new Inventory("Laptop", "Dell XPS", new BigDecimal("1200.00"), 10));
+        inventoryRepository.save(new Inventory("Mouse", "Logitech", new BigDecimal("50.00"), 100));
+        inventoryRepository.save(new Inventory("Keyboard", "Corsair", new BigDecimal("150.00"), 50));
+
+        // Act
+        CursorPage<Inventory> first = inventoryService.getInventoryAfterCursor(null, "price", Sort.Direction.DESC, 2, true);
+        CursorPage<Inventory> second = inventoryService.getInventoryAfterCursor(first.getNextCursor(), "price", Sort.Direction.DESC, 2, true);
+
+        // Assert
+        assertEquals(3L, first.getTotalElements());
+        assertEquals("Laptop", first.getContent().get(0).getName());
+        assertEquals("Keyboard", first.getContent().get(1).getName());
+        assertEquals(1, second.getContent().size());
+        assertEquals("Mouse", second.getContent().get(0).getName());
+        assertFalse(second.isHasNext());
+    }
+
+    @Test
+    public void shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> inventoryService.getInventoryAfterCursor("not-a-cursor", "name", Sort.Direction.ASC, 2, false));
+    }
+
     @Test
     public void shouldSearchInventoryByNameOrDescription() {
         // Arrange: Create and save inventory items
@@ -159,6 +337,47 @@ public class InventoryServiceTest {
         assertEquals("Smartphone", searchResultsByDescription.get(0).getName());
     }
 
+    @Test
+    public void shouldRequireAllSearchTermsAndRankNameMatchesFirst() {
+        // Arrange
+        inventoryService.createInventory(new Inventory("Laptop Stand", "Aluminium desk stand", new BigDecimal("40.00"), 10));
+        inventoryService.createInventory(new Inventory("Dell Laptop", "XPS 13 with stand-by mode", new BigDecimal("1200.00"), 5));
+        inventoryService.createInventory(new Inventory("Desk Lamp", "LED lamp", new BigDecimal("30.00"), 20));
+
+        // Act
+        List<Inventory> bothTerms = inventoryService.searchInventory("laptop stand");
+        List<Inventory> prefix = inventoryService.searchInventory("lam");
+        List<Inventory> limited = inventoryService.searchInventory("desk", 1);
+
+        // Assert: Both items contain both terms, but "stand" is in the name of the first one
+        assertEquals(List.of("Laptop Stand", "Dell Laptop"), bothTerms.stream().map(Inventory::getName).toList());
+        assertEquals(1, prefix.size());
+        assertEquals("Desk Lamp", prefix.get(0).getName());
+        assertEquals(1, limited.size());
+        assertEquals("Desk Lamp", limited.get(0).getName());
+    }
+
+    @Test
+    public void shouldKeepSearchResultsInSyncWithUpdatesAndDeletes() {
+        // Arrange
+        Inventory saved = inventoryService.createInventory(new Inventory("Tablet", "Android tablet", new BigDecimal("300.00"), 8));
+
+        // Act: Rename the item, then delete it
+        saved.setName("Reader");
+        saved.setDescription("E-ink reader");
+        inventoryService.updateInventory(saved.getId(), saved);
+        List<Inventory> byOldName = inventoryService.searchInventory("tablet");
+        List<Inventory> byNewName = inventoryService.searchInventory("reader");
+
+        inventoryService.deleteInventoryById(saved.getId());
+        List<Inventory> afterDelete = inventoryService.searchInventory("reader");
+
+        // Assert
+        assertTrue(byOldName.isEmpty(), "Old tokens should be removed from the index");
+        assertEquals(1, byNewName.size());
+        assertTrue(afterDelete.isEmpty(), "Deleted items should not be found");
+    }
+
     @Test
     public void shouldFindInventoryBelowStockThreshold() {
         // Arrange
@@ -175,4 +394,167 @@ public class InventoryServiceTest {
         assertFalse(itemsBelowThreshold.contains(item2), "Should not include item2 as it's above threshold");
     }
 
+    @Test
+    public void shouldListLowStockItemsLowestFirstAndTrackChanges() {
+        // Arrange
+        Inventory item1 = inventoryService.createInventory(new Inventory("Item1", "Low stock item", new BigDecimal("50.00"), 4));
+        Inventory item2 = inventoryService.createInventory(new Inventory("Item2", "Very low stock", new BigDecimal("75.00"), 1));
+        inventoryService.createInventory(new Inventory("Item3", "Sufficient stock", new BigDecimal("75.00"), 20));
+
+        // Act
+        List<Inventory> before = inventoryService.findInventoryBelowStockThreshold(5);
+        inventoryService.adjustStock(item1.getId(), 10);
+        List<Inventory> after = inventoryService.findInventoryBelowStockThreshold(5);
+
+        // Assert
+        assertEquals(List.of(item2.getId(), item1.getId()), before.stream().map(Inventory::getId).toList());
+        assertEquals(List.of(item2.getId()), after.stream().map(Inventory::getId).toList());
+    }
+
+    @Test
+    public void shouldNotifySubscribersWhenStockCrossesThreshold() throws InterruptedException {
+        // Arrange
+        Inventory item = inventoryService.createInventory(new Inventory("Item1", "Watched item", new BigDecimal("50.00"), 8));
+        BlockingQueue<StockThresholdCrossing> crossings = new LinkedBlockingQueue<>();
+        Runnable unsubscribe = inventoryService.subscribeToStockThreshold(5, crossings::add);
+
+        try {
+            // Act: Stay above, drop below, then recover
+            inventoryService.adjustStock(item.getId(), -2);
+            inventoryService.adjustStock(item.getId(), -3);
+            inventoryService.adjustStock(item.getId(), 7);
+
+            // Assert
+            StockThresholdCrossing below = crossings.poll(5, TimeUnit.SECONDS);
+            StockThresholdCrossing recovered = crossings.poll(5, TimeUnit.SECONDS);
+            assertNotNull(below);
+            assertEquals(StockThresholdCrossing.Direction.BELOW, below.direction());
+            assertEquals(3, below.stockQuantity());
+            assertNotNull(recovered);
+            assertEquals(StockThresholdCrossing.Direction.RECOVERED, recovered.direction());
+            assertEquals(10, recovered.stockQuantity());
+            assertNull(crossings.poll(100, TimeUnit.MILLISECONDS), "Moves that stay on one side should not notify");
+        } finally {
+            unsubscribe.run();
+        }
+    }
+
+    @Test
+    public void shouldIgnoreStockChangesDeliveredOutOfOrder() {
+        // Arrange: version 0 on create, 1 after the adjustment, 2 after the update
+        Inventory item = inventoryService.createInventory(new Inventory("Item1", "Reordered item", new BigDecimal("50.00"), 8));
+        inventoryService.adjustStock(item.getId(), 2);
+        inventoryService.updateInventory(item.getId(), new Inventory("Item1", "Reordered item", new BigDecimal("50.00"), 1));
+
+        // Act: The adjustment's event arrives after the update's, as concurrent commits allow
+        stockLevelIndex.onInventoryChange(InventoryChangeEvent.stockAdjusted(item.getId(), 10, 1L));
+
+        // Assert
+        assertEquals(List.of(item.getId()), stockLevelIndex.findIdsBelow(5));
+    }
+
+    @Test
+    void shouldPublishCommittedChangesToChangeFeed() throws InterruptedException {
+        // Arrange
+        BlockingQueue<InventoryChange> changes = new LinkedBlockingQueue<>();
+        Runnable unsubscribe = inventoryService.subscribeToChanges(null, new InventoryChangeFeed.Subscriber() {
+            @Override
+            public void onChange(String eventId, InventoryChange change) {
+                changes.add(change);
+            }
+
+            @Override
+            public void onResync(String lastEventId) {
+                fail("Should not resync");
+            }
+        });
+
+        try {
+            // Act
+            Inventory item = inventoryService.createInventory(new Inventory("Item1", "Followed item", new BigDecimal("50.00"), 8));
+            inventoryService.adjustStock(item.getId(), -3);
+            inventoryService.deleteInventoryById(item.getId());
+
+            // Assert
+            InventoryChange created = changes.poll(5, TimeUnit.SECONDS);
+            InventoryChange adjusted = changes.poll(5, TimeUnit.SECONDS);
+            InventoryChange deleted = changes.poll(5, TimeUnit.SECONDS);
+            assertEquals(InventoryChangeEvent.Type.CREATED, created.type());
+            assertEquals("Item1", created.name());
+            assertEquals(InventoryChangeEvent.Type.STOCK_ADJUSTED, adjusted.type());
+            assertEquals(5, adjusted.stockQuantity());
+            assertEquals(InventoryChangeEvent.Type.DELETED, deleted.type());
+            assertEquals(item.getId(), deleted.id());
+            assertTrue(created.sequence() < adjusted.sequence() && adjusted.sequence() < deleted.sequence());
+        } finally {
+            unsubscribe.run();
+        }
+    }
+
+    @Test
+    void shouldKeepAggregatesInStepWithEveryWrite() {
+        // Arrange
+        Inventory laptop = inventoryService.createInventory(new Inventory("Laptop", "Dell XPS", new BigDecimal("1000.00"), 2));
+        Inventory mouse = inventoryService.createInventory(new Inventory("Mouse", "Logitech", new BigDecimal("20.00"), 10));
+        inventoryService.createInventoryInBulk(List.of(new Inventory("Cable", "USB-C", new BigDecimal("5.00"), 0)));
+
+        // Act
+        inventoryService.updateInventory(laptop.getId(), new Inventory("Laptop", "Dell XPS", new BigDecimal("900.00"), 3));
+        inventoryService.adjustStock(mouse.getId(), -10);
+        inventoryService.deleteInventoryById(laptop.getId());
+        InventoryAggregates aggregates = inventoryService.getInventoryAggregates();
+
+        // Assert: Mouse 0 x 20.00 and Cable 0 x 5.00 remain
+        assertEquals(2, aggregates.itemCount());
+        assertEquals(2, aggregates.outOfStockCount());
+        assertEquals(0, aggregates.totalUnits());
+        assertEquals(0, aggregates.totalValue().compareTo(BigDecimal.ZERO));
+
+        inventoryService.adjustStock(mouse.getId(), 4);
+        assertEquals(0, new BigDecimal("80.00").compareTo(inventoryService.getInventoryAggregates().totalValue()));
+        assertEquals(1, inventoryService.getInventoryAggregates().outOfStockCount());
+    }
+
+    @Test
+    void shouldIgnoreAggregateChangesDeliveredOutOfOrder() {
+        // Arrange: version 0 on create, 1 after the update
+        Inventory laptop = inventoryService.createInventory(new Inventory("Laptop", "Dell XPS", new BigDecimal("1000.00"), 2));
+        InventoryChangeEvent created = InventoryChangeEvent.of(InventoryChangeEvent.Type.CREATED, laptop);
+        inventoryService.updateInventory(laptop.getId(), new Inventory("Laptop", "Dell XPS", new BigDecimal("900.00"), 3));
+
+        // Act & Assert: the creation arrives after the update, then again after the delete
+        aggregateTotals.onInventoryChange(created);
+        assertEquals(3, inventoryService.getInventoryAggregates().totalUnits());
+        inventoryService.deleteInventoryById(laptop.getId());
+        aggregateTotals.onInventoryChange(created);
+        assertEquals(0, inventoryService.getInventoryAggregates().itemCount());
+
+        // Act & Assert: an adjustment overtaking the creation of its item is held until the price is known
+        Long id = laptop.getId() + 1000;
+        aggregateTotals.onInventoryChange(InventoryChangeEvent.stockAdjusted(id, 7, 1L));
+        aggregateTotals.onInventoryChange(new InventoryChangeEvent(InventoryChangeEvent.Type.CREATED, id,
+                "Mouse", "Logitech", new BigDecimal("20.00"), 5, 0L));
+        assertEquals(7, inventoryService.getInventoryAggregates().totalUnits());
+        assertEquals(0, new BigDecimal("140.00").compareTo(inventoryService.getInventoryAggregates().totalValue()));
+        aggregateTotals.onInventoryChange(new InventoryChangeEvent(InventoryChangeEvent.Type.DELETED, id,
+                null, null, null, 0, null));
+    }
+
+    @Test
+    void shouldReconcileAggregatesWithTheTable() {
+        // Arrange
+        inventoryService.createInventory(new Inventory("Laptop", "Dell XPS", new BigDecimal("1000.00"), 2));
+        InventoryAggregates running = inventoryService.getInventoryAggregates();
+
+        // Act
+        aggregateTotals.reconcile();
+
+        // Assert
+        InventoryAggregates reconciled = inventoryService.getInventoryAggregates();
+        assertEquals(running.itemCount(), reconciled.itemCount());
+        assertEquals(running.totalUnits(), reconciled.totalUnits());
+        assertEquals(0, running.totalValue().compareTo(reconciled.totalValue()));
+        assertEquals(0, new BigDecimal("2000.00").compareTo(reconciled.totalValue()));
+    }
+
 }
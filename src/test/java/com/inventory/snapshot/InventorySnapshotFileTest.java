@@ -0,0 +1,90 @@
+package com.inventory.snapshot;
+
+import com.inventory.model.Inventory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventorySnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<Inventory> readAll(Path file) throws IOException {
+        List<Inventory> items = new ArrayList<>();
+        try (InventorySnapshotFile.Reader reader = new InventorySnapshotFile.Reader(file)) {
+            for (Inventory item = reader.next(); item != null; item = reader.next()) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    @Test
+    public void shouldRoundTripItemsIncludingNullFields() throws IOException {
+        Path file = directory.resolve("inventory.snapshot");
+        try (InventorySnapshotFile.Writer writer = new InventorySnapshotFile.Writer(file)) {
+            writer.write(new Inventory(1L, 3L, "Laptop", "Dell XPS, 13\"", new BigDecimal("1200.50"), 5, "BER"));
+            writer.write(new Inventory(2L, null, "Mouse", null, null, 0));
+            assertEquals(2, writer.commit());
+        }
+
+        List<Inventory> items = readAll(file);
+
+        assertEquals(2, items.size());
+        Inventory laptop = items.get(0);
+        assertEquals(1L, laptop.getId());
+        assertEquals(3L, laptop.getVersion());
+        assertEquals("Dell XPS, 13\"", laptop.getDescription());
+        assertEquals(new BigDecimal("1200.50"), laptop.getPrice());
+        assertEquals(5, laptop.getStockQuantity());
+        assertEquals("BER", laptop.getWarehouse());
+        Inventory mouse = items.get(1);
+        assertNull(mouse.getVersion());
+        assertNull(mouse.getDescription());
+        assertNull(mouse.getPrice());
+        assertNull(mouse.getWarehouse());
+        assertEquals(1, Files.list(directory).count(), "The temporary file should be gone");
+    }
+
+    @Test
+    public void shouldDetectCorruptedSnapshot() throws IOException {
+        Path file = directory.resolve("inventory.snapshot");
+        try (InventorySnapshotFile.Writer writer = new InventorySnapshotFile.Writer(file)) {
+            writer.write(new Inventory(1L, 0L, "Laptop", "Dell XPS", new BigDecimal("1200.00"), 5));
+            writer.commit();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[20] ^= 0x01;   // inside the first record's name
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> readAll(file));
+    }
+
+    @Test
+    public void shouldKeepPreviousSnapshotWhenWriteIsNotCommitted() throws IOException {
+        Path file = directory.resolve("inventory.snapshot");
+        try (InventorySnapshotFile.Writer writer = new InventorySnapshotFile.Writer(file)) {
+            writer.write(new Inventory(1L, 0L, "Laptop", "Dell XPS", new BigDecimal("1200.00"), 5));
+            writer.commit();
+        }
+
+        try (InventorySnapshotFile.Writer writer = new InventorySnapshotFile.Writer(file)) {
+            writer.write(new Inventory(2L, 0L, "Mouse", "Logitech", new BigDecimal("25.00"), 1));
+            // Abandoned before commit, e.g. because the table read failed
+        }
+
+        List<Inventory> items = readAll(file);
+        assertEquals(1, items.size());
+        assertEquals("Laptop", items.get(0).getName());
+        assertEquals(1, Files.list(directory).count());
+    }
+}
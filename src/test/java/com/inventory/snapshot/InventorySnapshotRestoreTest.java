@@ -0,0 +1,74 @@
+package com.inventory.snapshot;
+
+import com.inventory.Service.InventoryService;
+import com.inventory.model.Inventory;
+import com.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        // A database of its own, so that the table is empty at startup whatever other test contexts did
+        "spring.datasource.url=jdbc:h2:mem:snapshot-restore",
+        "inventory.snapshot.enabled=true",
+        // Snapshots are triggered by the test
+        "inventory.snapshot.interval-ms=3600000"
+})
+public class InventorySnapshotRestoreTest {
+
+    private static Path snapshotFile;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventorySnapshotService snapshotService;
+
+    @DynamicPropertySource
+    static void snapshotFile(DynamicPropertyRegistry registry) throws IOException {
+        snapshotFile = Files.createTempDirectory("inventory-snapshot").resolve("inventory.snapshot");
+        try (InventorySnapshotFile.Writer writer = new InventorySnapshotFile.Writer(snapshotFile)) {
+            writer.write(new Inventory(7L, 2L, "Laptop", "Dell XPS", new BigDecimal("1200.00"), 5));
+            writer.write(new Inventory(1000L, 0L, "Mouse", "Logitech", new BigDecimal("25.00"), 40));
+            writer.commit();
+        }
+        registry.add("inventory.snapshot.path", snapshotFile::toString);
+    }
+
+    @Test
+    public void shouldRestoreSnapshotAtStartupAndWriteItBack() throws IOException {
+        // Restored rows keep their ids and versions, and the in-memory indexes loaded them
+        Inventory laptop = inventoryService.getInventoryById(7L).orElseThrow();
+        assertEquals("Laptop", laptop.getName());
+        assertEquals(2L, laptop.getVersion());
+        assertEquals(List.of(1000L), inventoryService.searchInventory("logitech", 10).stream().map(Inventory::getId).toList());
+
+        // New items never reuse restored ids
+        Inventory keyboard = inventoryService.createInventory(new Inventory("Keyboard", "Mechanical", new BigDecimal("80.00"), 3));
+        assertTrue(keyboard.getId() > 1000L);
+
+        assertEquals(3, snapshotService.snapshot());
+        assertEquals(-1, snapshotService.snapshot(), "Nothing changed since the last snapshot");
+        assertEquals(3, inventoryRepository.count());
+        try (InventorySnapshotFile.Reader reader = new InventorySnapshotFile.Reader(snapshotFile)) {
+            int count = 0;
+            while (reader.next() != null) {
+                count++;
+            }
+            assertEquals(3, count);
+        }
+    }
+}